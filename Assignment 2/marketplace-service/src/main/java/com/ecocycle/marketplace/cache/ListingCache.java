@@ -0,0 +1,66 @@
+package com.ecocycle.marketplace.cache;
+
+import com.ecocycle.marketplace.dto.ListingDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Size-bounded, TTL-aware read-through cache of listing DTOs (Caffeine, W-TinyLFU eviction).
+ * <p>
+ * Hit, miss and eviction counts are published as the {@code cache.*} meters tagged
+ * {@code cache=listings}. Entries are only invalidated by writes on this instance,
+ * so the TTL bounds how stale another instance's copy can get.
+ */
+@Component
+public class ListingCache {
+
+    private final Cache<Long, ListingDto> cache;
+
+    public ListingCache(@Value("${marketplace.cache.listings.max-size:100000}") long maxSize,
+                        @Value("${marketplace.cache.listings.ttl:10m}") Duration ttl,
+                        MeterRegistry registry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, cache, "listings");
+    }
+
+    /**
+     * @param loader returns null when the listing does not exist; misses are not cached
+     */
+    public ListingDto get(Long id, Function<Long, ListingDto> loader) {
+        return cache.get(id, loader);
+    }
+
+    /**
+     * Looks up every id, loading all misses with a single call to {@code bulkLoader}.
+     * Ids the loader does not return are absent from the result and are not cached.
+     */
+    public Map<Long, ListingDto> getAll(Collection<Long> ids,
+                                        Function<Set<? extends Long>, Map<Long, ListingDto>> bulkLoader) {
+        return cache.getAll(ids, bulkLoader);
+    }
+
+    public void put(ListingDto listing) {
+        cache.put(listing.id(), listing);
+    }
+
+    /**
+     * Must be called by every path that updates or deletes a listing.
+     */
+    public void invalidate(Long id) {
+        cache.invalidate(id);
+    }
+}
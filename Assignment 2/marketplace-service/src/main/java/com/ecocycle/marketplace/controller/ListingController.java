@@ -1,25 +1,57 @@
 package com.ecocycle.marketplace.controller;
 
 import com.ecocycle.marketplace.dto.CreateListingRequest;
+import com.ecocycle.marketplace.dto.ListingBatchDto;
+import com.ecocycle.marketplace.dto.ListingCursor;
 import com.ecocycle.marketplace.dto.ListingDto;
+import com.ecocycle.marketplace.dto.ListingFacetsDto;
+import com.ecocycle.marketplace.dto.ListingImportResult;
+import com.ecocycle.marketplace.dto.ListingPage;
+import com.ecocycle.marketplace.dto.NearbyListingDto;
 import com.ecocycle.marketplace.model.ListingType;
+import com.ecocycle.marketplace.service.ListingImportService;
 import com.ecocycle.marketplace.service.ListingService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/listings")
 @RequiredArgsConstructor
 public class ListingController {
 
+    private static final String TEXT_CSV = "text/csv";
+
     private final ListingService service;
+    private final ListingImportService importService;
+    private final ObjectMapper mapper;
 
     @PostMapping
     public ResponseEntity<ListingDto> create(@Valid @RequestBody CreateListingRequest req,
@@ -28,13 +60,148 @@ public class ListingController {
         return ResponseEntity.status(HttpStatus.CREATED).body(service.create(req, ownerId));
     }
 
+    /**
+     * Bulk create from an NDJSON or CSV body; see {@link ListingImportService} for the formats.
+     */
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, TEXT_CSV})
+    public ListingImportResult importListings(InputStream body, HttpServletRequest request) throws IOException {
+        Long ownerId = (Long) request.getAttribute("userId");
+        boolean csv = MediaType.parseMediaType(request.getContentType()).isCompatibleWith(MediaType.parseMediaType(TEXT_CSV));
+        return csv
+                ? importService.importCsv(body, ownerId)
+                : importService.importNdjson(body, ownerId);
+    }
+
+    /**
+     * The ETag is the catalog version, so a client re-polling an unchanged catalog gets a 304
+     * before any page is built.
+     */
     @GetMapping
-    public List<ListingDto> list(@RequestParam Optional<ListingType> type) {
-        return service.list(type);
+    public ResponseEntity<ListingPage> list(@RequestParam Optional<ListingType> type,
+                                            @RequestParam Optional<@DecimalMin("0") @DecimalMax(CreateListingRequest.MAX_PRICE) BigDecimal> minPrice,
+                                            @RequestParam Optional<@DecimalMin("0") @DecimalMax(CreateListingRequest.MAX_PRICE) BigDecimal> maxPrice,
+                                            @RequestParam Optional<String> cursor,
+                                            @RequestParam(defaultValue = "50") @Min(1) @Max(500) int limit,
+                                            WebRequest webRequest) {
+        String etag = "\"" + service.catalogVersion() + "\"";
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        ListingPage page = service.list(type, minPrice, maxPrice, cursor.map(this::parseCursor), limit);
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(page);
+    }
+
+    /**
+     * Multi-get for service-to-service callers, e.g. {@code GET /listings?ids=1,2,3}.
+     */
+    @GetMapping(params = "ids")
+    public ListingBatchDto getAll(@RequestParam @Size(max = 500) List<Long> ids) {
+        return service.getAll(ids);
+    }
+
+    /**
+     * Streams the whole (optionally filtered) catalog as one JSON array, row by row,
+     * so neither side has to hold the full result in memory.
+     */
+    @GetMapping(params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> stream(@RequestParam Optional<ListingType> type) {
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator gen = mapper.getFactory().createGenerator(out)) {
+                gen.writeStartArray();
+                service.stream(type, dto -> write(gen, dto));
+                gen.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    /**
+     * Bulk export as newline-delimited JSON, gzip-compressed when the client accepts it.
+     * Rows are written while the database cursor advances, so heap use does not depend
+     * on how many rows match.
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam Optional<ListingType> type,
+                                                        @RequestParam Optional<Instant> createdAfter,
+                                                        @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false)
+                                                        String acceptEncoding) {
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        StreamingResponseBody body = out -> {
+            OutputStream target = gzip ? new GZIPOutputStream(out, 64 * 1024) : out;
+            try (JsonGenerator gen = mapper.getFactory().createGenerator(target)) {
+                service.export(type, createdAfter, row -> writeLine(gen, row));
+            }
+        };
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING).body(body);
+    }
+
+    @GetMapping("/facets")
+    public ListingFacetsDto facets() {
+        return service.facets();
+    }
+
+    @GetMapping("/search")
+    public List<ListingDto> search(@RequestParam("q") String query,
+                                   @RequestParam(defaultValue = "20") @Min(1) @Max(100) int limit) {
+        return service.search(query, limit);
     }
 
+    @GetMapping("/nearby")
+    public List<NearbyListingDto> nearby(@RequestParam @DecimalMin("-90") @DecimalMax("90") double lat,
+                                         @RequestParam @DecimalMin("-180") @DecimalMax("180") double lon,
+                                         @RequestParam(defaultValue = "10") @DecimalMin("0") @DecimalMax("200") double radiusKm,
+                                         @RequestParam Optional<ListingType> type,
+                                         @RequestParam(defaultValue = "50") @Min(1) @Max(500) int limit) {
+        return service.nearby(lat, lon, radiusKm, type, limit);
+    }
+
+    /**
+     * Served from the listing cache. The ETag is the listing's row version in the read model and is
+     * checked before the listing is loaded, so a matching If-None-Match gets a 304 without touching
+     * the cache or the database. It is read before the body, so it can only be older than the body.
+     */
     @GetMapping("/{id}")
-    public ListingDto get(@PathVariable Long id) {
-        return service.get(id);
+    public ResponseEntity<ListingDto> get(@PathVariable Long id, WebRequest webRequest) {
+        Optional<String> etag = service.version(id).map(v -> "\"" + v + "\"");
+        if (etag.isPresent() && webRequest.checkNotModified(etag.get())) {
+            return null;
+        }
+        ListingDto dto = service.get(id);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofSeconds(60)).cachePrivate());
+        etag.ifPresent(response::eTag);
+        return response.body(dto);
+    }
+
+    private void write(JsonGenerator gen, Object value) {
+        try {
+            mapper.writeValue(gen, value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeLine(JsonGenerator gen, Object value) {
+        write(gen, value);
+        try {
+            gen.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private ListingCursor parseCursor(String cursor) {
+        try {
+            return ListingCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor", e);
+        }
     }
 }
@@ -1,6 +1,8 @@
 package com.ecocycle.marketplace.dto;
 
 import com.ecocycle.marketplace.model.ListingType;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 
@@ -10,7 +12,15 @@ public record CreateListingRequest(
         @NotBlank String title,
         String description,
         @NotNull ListingType type,
-        BigDecimal price,
+        @DecimalMin("0") @DecimalMax(CreateListingRequest.MAX_PRICE) BigDecimal price,
         String condition,
-        String location
-) {}
+        String location,
+        @DecimalMin("-90") @DecimalMax("90") Double latitude,
+        @DecimalMin("-180") @DecimalMax("180") Double longitude
+) {
+
+    /**
+     * Largest accepted price; its value in cents still fits in a long.
+     */
+    public static final String MAX_PRICE = "9999999999999999.99";
+}
@@ -0,0 +1,9 @@
+package com.ecocycle.marketplace.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result of a multi-get: every requested id is either a key of {@code listings} or in {@code notFound}.
+ */
+public record ListingBatchDto(Map<Long, ListingDto> listings, List<Long> notFound) {}
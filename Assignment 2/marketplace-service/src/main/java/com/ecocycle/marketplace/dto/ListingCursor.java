@@ -0,0 +1,42 @@
+package com.ecocycle.marketplace.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Position in the (createdAt DESC, id DESC) ordering of listings.
+ * Clients only ever see the encoded form and hand it back unchanged.
+ */
+public record ListingCursor(Instant createdAt, Long id) {
+
+    // The read model seeks on createdAt as epoch nanoseconds in a long, which spans the years 1677 to 2262
+    private static final Instant MIN_CREATED_AT = Instant.ofEpochSecond(0, Long.MIN_VALUE);
+    private static final Instant MAX_CREATED_AT = Instant.ofEpochSecond(0, Long.MAX_VALUE);
+
+    public String encode() {
+        String raw = createdAt.getEpochSecond() + ":" + createdAt.getNano() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the value was not produced by {@link #encode()}
+     */
+    public static ListingCursor decode(String value) {
+        String[] parts = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8).split(":");
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+        try {
+            Instant createdAt = Instant.ofEpochSecond(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+            if (createdAt.isBefore(MIN_CREATED_AT) || createdAt.isAfter(MAX_CREATED_AT)) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            return new ListingCursor(createdAt, Long.valueOf(parts[2]));
+        } catch (DateTimeException | ArithmeticException e) {
+            // A forged timestamp outside the Instant range
+            throw new IllegalArgumentException("Malformed cursor", e);
+        }
+    }
+}
@@ -10,7 +10,9 @@ public record ListingDto(
         String title,
         ListingType type,
         BigDecimal price,
-        Long ownerId
+        Long ownerId,
+        Double latitude,
+        Double longitude
 ) {
     public static ListingDto from(Listing l) {
         return new ListingDto(
@@ -18,7 +20,9 @@ public record ListingDto(
                 l.getTitle(),
                 l.getType(),
                 l.getPrice(),
-                l.getOwnerId()
+                l.getOwnerId(),
+                l.getLatitude(),
+                l.getLongitude()
         );
     }
 }
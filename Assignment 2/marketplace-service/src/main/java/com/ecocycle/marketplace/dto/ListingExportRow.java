@@ -0,0 +1,40 @@
+package com.ecocycle.marketplace.dto;
+
+import com.ecocycle.marketplace.model.Listing;
+import com.ecocycle.marketplace.model.ListingType;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Every column of a listing, as written by the bulk export.
+ */
+public record ListingExportRow(
+        Long id,
+        String title,
+        String description,
+        ListingType type,
+        BigDecimal price,
+        String condition,
+        String location,
+        Double latitude,
+        Double longitude,
+        Long ownerId,
+        Instant createdAt
+) {
+    public static ListingExportRow from(Listing l) {
+        return new ListingExportRow(
+                l.getId(),
+                l.getTitle(),
+                l.getDescription(),
+                l.getType(),
+                l.getPrice(),
+                l.getCondition(),
+                l.getLocation(),
+                l.getLatitude(),
+                l.getLongitude(),
+                l.getOwnerId(),
+                l.getCreatedAt()
+        );
+    }
+}
@@ -0,0 +1,12 @@
+package com.ecocycle.marketplace.dto;
+
+import java.util.Map;
+
+/**
+ * Number of listings per filter value. Listings without a value for a dimension are not counted in it.
+ */
+public record ListingFacetsDto(
+        Map<String, Long> types,
+        Map<String, Long> conditions,
+        Map<String, Long> locations
+) {}
@@ -0,0 +1,13 @@
+package com.ecocycle.marketplace.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk import. Rows are numbered from 1; the CSV header is not counted and
+ * is reported as row 0 if it cannot be parsed.
+ * Only the first {@code errors.size()} failures are reported individually; {@code failed} counts all of them.
+ */
+public record ListingImportResult(long received, long created, long failed, List<RowError> errors) {
+
+    public record RowError(long row, String message) {}
+}
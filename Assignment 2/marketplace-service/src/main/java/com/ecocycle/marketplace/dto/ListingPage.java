@@ -0,0 +1,8 @@
+package com.ecocycle.marketplace.dto;
+
+import java.util.List;
+
+/**
+ * One page of listings; {@code nextCursor} is null on the last page.
+ */
+public record ListingPage(List<ListingDto> items, String nextCursor) {}
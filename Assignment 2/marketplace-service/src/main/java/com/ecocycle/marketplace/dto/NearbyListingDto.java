@@ -0,0 +1,3 @@
+package com.ecocycle.marketplace.dto;
+
+public record NearbyListingDto(ListingDto listing, double distanceKm) {}
@@ -0,0 +1,203 @@
+package com.ecocycle.marketplace.geo;
+
+import com.ecocycle.marketplace.index.ListingIndex;
+import com.ecocycle.marketplace.model.Listing;
+import com.ecocycle.marketplace.model.ListingType;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Fixed-size lat/lon grid over listings that have coordinates.
+ * <p>
+ * Each cell keeps one bucket per {@link ListingType}, so a radius query only touches
+ * the cells overlapping the search circle's bounding box and, when a type is given,
+ * only that type's points. Query cost therefore grows with the density around the
+ * searched point, not with the size of the catalog.
+ */
+@Component
+public class GeoGridIndex implements ListingIndex {
+
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+    // ~11 km tall; small enough for neighbourhood searches, large enough to keep the cell map small
+    private static final double CELL_DEGREES = 0.1;
+    private static final int LAT_CELLS = (int) Math.ceil(180 / CELL_DEGREES);
+    private static final int LON_CELLS = (int) Math.ceil(360 / CELL_DEGREES);
+    private static final double KM_PER_DEGREE = Math.PI * EARTH_RADIUS_KM / 180;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, EnumMap<ListingType, Bucket>> cells = new HashMap<>();
+    private final Map<Long, Location> locations = new HashMap<>();
+
+    public record Hit(long listingId, double distanceKm) {}
+
+    private record Location(long cell, ListingType type) {}
+
+    @Override
+    public void index(Listing listing) {
+        lock.writeLock().lock();
+        try {
+            remove(listing.getId());
+            if (listing.getLatitude() == null || listing.getLongitude() == null || listing.getType() == null) {
+                return;
+            }
+            long cell = cellOf(listing.getLatitude(), listing.getLongitude());
+            cells.computeIfAbsent(cell, c -> new EnumMap<>(ListingType.class))
+                    .computeIfAbsent(listing.getType(), t -> new Bucket())
+                    .add(listing.getId(), listing.getLatitude(), listing.getLongitude());
+            locations.put(listing.getId(), new Location(cell, listing.getType()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            cells.clear();
+            locations.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Listings within {@code radiusKm} of the given point, closest first.
+     */
+    public List<Hit> nearby(double lat, double lon, double radiusKm, Optional<ListingType> type, int limit) {
+        double latSpan = radiusKm / KM_PER_DEGREE;
+        int minLat = latIndex(Math.max(-90, lat - latSpan));
+        int maxLat = latIndex(Math.min(90, lat + latSpan));
+
+        // longitude degrees shrink towards the poles; fall back to the full band when the box wraps the pole
+        double maxAbsLat = Math.min(90, Math.abs(lat) + latSpan);
+        double cos = Math.cos(Math.toRadians(maxAbsLat));
+        int lonSteps = cos < 1e-6 ? LON_CELLS : (int) Math.ceil(radiusKm / (KM_PER_DEGREE * cos) / CELL_DEGREES) + 1;
+        int centerLon = lonIndex(lon);
+        int firstLon = lonSteps * 2 + 1 >= LON_CELLS ? 0 : centerLon - lonSteps;
+        int lonCount = Math.min(LON_CELLS, lonSteps * 2 + 1);
+
+        List<Hit> hits = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (int la = minLat; la <= maxLat; la++) {
+                for (int k = 0; k < lonCount; k++) {
+                    int lo = Math.floorMod(firstLon + k, LON_CELLS);
+                    EnumMap<ListingType, Bucket> cell = cells.get(key(la, lo));
+                    if (cell == null) {
+                        continue;
+                    }
+                    if (type.isPresent()) {
+                        Bucket bucket = cell.get(type.get());
+                        if (bucket != null) {
+                            bucket.collect(lat, lon, radiusKm, hits);
+                        }
+                    } else {
+                        for (Bucket bucket : cell.values()) {
+                            bucket.collect(lat, lon, radiusKm, hits);
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        hits.sort(Comparator.comparingDouble(Hit::distanceKm));
+        return hits.size() > limit ? new ArrayList<>(hits.subList(0, limit)) : hits;
+    }
+
+    private void remove(Long id) {
+        Location previous = locations.remove(id);
+        if (previous == null) {
+            return;
+        }
+        EnumMap<ListingType, Bucket> cell = cells.get(previous.cell());
+        Bucket bucket = cell.get(previous.type());
+        bucket.remove(id);
+        if (bucket.size == 0) {
+            cell.remove(previous.type());
+            if (cell.isEmpty()) {
+                cells.remove(previous.cell());
+            }
+        }
+    }
+
+    private static double haversineKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private static long cellOf(double lat, double lon) {
+        return key(latIndex(lat), lonIndex(lon));
+    }
+
+    private static int latIndex(double lat) {
+        return Math.min(LAT_CELLS - 1, (int) Math.floor((lat + 90) / CELL_DEGREES));
+    }
+
+    private static int lonIndex(double lon) {
+        return Math.floorMod((int) Math.floor((lon + 180) / CELL_DEGREES), LON_CELLS);
+    }
+
+    private static long key(int latIndex, int lonIndex) {
+        return ((long) latIndex << 32) | lonIndex;
+    }
+
+    /**
+     * Unordered points of one type in one cell, stored as parallel primitive arrays.
+     */
+    private static final class Bucket {
+        private long[] ids = new long[4];
+        private double[] lats = new double[4];
+        private double[] lons = new double[4];
+        private int size;
+
+        void add(long id, double lat, double lon) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                lats = Arrays.copyOf(lats, size * 2);
+                lons = Arrays.copyOf(lons, size * 2);
+            }
+            ids[size] = id;
+            lats[size] = lat;
+            lons[size] = lon;
+            size++;
+        }
+
+        void remove(long id) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    size--;
+                    ids[i] = ids[size];
+                    lats[i] = lats[size];
+                    lons[i] = lons[size];
+                    return;
+                }
+            }
+        }
+
+        void collect(double lat, double lon, double radiusKm, List<Hit> out) {
+            for (int i = 0; i < size; i++) {
+                double d = haversineKm(lat, lon, lats[i], lons[i]);
+                if (d <= radiusKm) {
+                    out.add(new Hit(ids[i], d));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.ecocycle.marketplace.index;
+
+import com.ecocycle.marketplace.model.Listing;
+
+/**
+ * An in-memory view over the listing catalog that is kept in sync by {@link ListingIndexer}.
+ * Implementations must be thread-safe and treat {@link #index(Listing)} as an upsert.
+ */
+public interface ListingIndex {
+
+    void index(Listing listing);
+
+    void clear();
+}
@@ -0,0 +1,62 @@
+package com.ecocycle.marketplace.index;
+
+import com.ecocycle.marketplace.model.Listing;
+import com.ecocycle.marketplace.repository.ListingRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Feeds every {@link ListingIndex} bean: one full pass over the table at startup
+ * (before the web server accepts requests) and then each listing as it is saved.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ListingIndexer implements SmartInitializingSingleton {
+
+    private final ListingRepository repo;
+    private final List<ListingIndex> indexes;
+    private final PlatformTransactionManager txManager;
+    private final EntityManager em;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        AtomicLong count = new AtomicLong();
+        indexes.forEach(ListingIndex::clear);
+
+        TransactionTemplate tx = new TransactionTemplate(txManager);
+        tx.setReadOnly(true);
+        tx.executeWithoutResult(status -> {
+            // oldest first, so ordered indexes append each row instead of inserting at the front
+            try (Stream<Listing> rows = repo.streamAllByOrderByCreatedAtAscIdAsc()) {
+                rows.forEach(l -> {
+                    onSaved(l);
+                    em.detach(l);
+                    count.incrementAndGet();
+                });
+            }
+        });
+        log.info("Indexed {} listings into {} indexes in {} ms",
+                count.get(), indexes.size(), System.currentTimeMillis() - start);
+    }
+
+    public void onSaved(Listing listing) {
+        for (ListingIndex index : indexes) {
+            index.index(listing);
+        }
+    }
+}
@@ -14,7 +14,11 @@ import java.math.BigDecimal;
 import java.time.Instant;
 
 @Entity
-@Table(name = "listings")
+@Table(name = "listings", indexes = {
+        // keyset pagination walks (createdAt, id) newest first, optionally within a type
+        @Index(name = "idx_listings_created_at_id", columnList = "createdAt, id"),
+        @Index(name = "idx_listings_type_created_at_id", columnList = "type, createdAt, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -28,7 +32,8 @@ public class Listing {
     private BigDecimal price;
     private String condition;
     private String location;
+    private Double latitude;
+    private Double longitude;
     private Long ownerId;
     private Instant createdAt = Instant.now();
 }
-
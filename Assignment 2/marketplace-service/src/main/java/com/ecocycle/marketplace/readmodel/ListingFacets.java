@@ -0,0 +1,106 @@
+package com.ecocycle.marketplace.readmodel;
+
+import com.ecocycle.marketplace.dto.ListingFacetsDto;
+import com.ecocycle.marketplace.model.ListingType;
+import com.ecocycle.marketplace.repository.ListingRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live listing counts per type, condition and location for the browse filters.
+ * <p>
+ * {@link ListingReadModel} adjusts the counters as rows enter and leave the snapshot,
+ * so reads never lock and cost O(number of facet values). A scheduled job compares
+ * the counters with GROUP BY counts from the database and resets any that drifted.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ListingFacets {
+
+    private final ListingRepository repo;
+
+    private final ConcurrentMap<String, LongAdder> types = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LongAdder> conditions = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LongAdder> locations = new ConcurrentHashMap<>();
+
+    void add(ListingType type, String condition, String location) {
+        adjust(types, type == null ? null : type.name(), 1);
+        adjust(conditions, condition, 1);
+        adjust(locations, location, 1);
+    }
+
+    void remove(ListingType type, String condition, String location) {
+        adjust(types, type == null ? null : type.name(), -1);
+        adjust(conditions, condition, -1);
+        adjust(locations, location, -1);
+    }
+
+    void clear() {
+        types.clear();
+        conditions.clear();
+        locations.clear();
+    }
+
+    public ListingFacetsDto snapshot() {
+        return new ListingFacetsDto(counts(types), counts(conditions), counts(locations));
+    }
+
+    @Scheduled(initialDelayString = "${marketplace.facets.verify-interval:15m}",
+            fixedDelayString = "${marketplace.facets.verify-interval:15m}")
+    public void verify() {
+        reconcile("type", types, repo.countByType());
+        reconcile("condition", conditions, repo.countByCondition());
+        reconcile("location", locations, repo.countByLocation());
+    }
+
+    /**
+     * Resets every counter that disagrees with the database. Writes racing with the
+     * GROUP BY can leave a counter off by a few until the next run.
+     */
+    private void reconcile(String dimension, ConcurrentMap<String, LongAdder> live, List<Object[]> rows) {
+        Map<String, Long> expected = new TreeMap<>();
+        for (Object[] row : rows) {
+            expected.put(String.valueOf(row[0]), (Long) row[1]);
+        }
+        Map<String, Long> actual = counts(live);
+        if (actual.equals(expected)) {
+            return;
+        }
+        log.warn("Listing {} facet counts drifted from the database, resetting: live={} db={}",
+                dimension, actual, expected);
+        live.keySet().removeIf(k -> !expected.containsKey(k));
+        expected.forEach((value, count) -> {
+            LongAdder adder = live.computeIfAbsent(value, v -> new LongAdder());
+            adder.reset();
+            adder.add(count);
+        });
+    }
+
+    private static void adjust(ConcurrentMap<String, LongAdder> counters, String value, int delta) {
+        if (value != null) {
+            counters.computeIfAbsent(value, v -> new LongAdder()).add(delta);
+        }
+    }
+
+    private static Map<String, Long> counts(ConcurrentMap<String, LongAdder> counters) {
+        Map<String, Long> out = new TreeMap<>();
+        counters.forEach((value, adder) -> {
+            long n = adder.sum();
+            if (n > 0) {
+                out.put(value, n);
+            }
+        });
+        return out;
+    }
+}
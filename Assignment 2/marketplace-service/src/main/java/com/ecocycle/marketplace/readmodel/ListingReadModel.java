@@ -0,0 +1,310 @@
+package com.ecocycle.marketplace.readmodel;
+
+import com.ecocycle.marketplace.dto.ListingCursor;
+import com.ecocycle.marketplace.dto.ListingDto;
+import com.ecocycle.marketplace.dto.ListingPage;
+import com.ecocycle.marketplace.index.ListingIndex;
+import com.ecocycle.marketplace.model.Listing;
+import com.ecocycle.marketplace.model.ListingType;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Column-oriented, in-memory snapshot of the browse fields of every listing.
+ * <p>
+ * Rows are kept sorted by (createdAt, id) so "newest first" is a backwards scan and a
+ * {@link ListingCursor} resolves to a row position by binary search. Each field lives in
+ * its own primitive array: the type as a byte, the price in cents, and condition/location
+ * as codes into shared dictionaries. A browse request touches only these arrays and
+ * allocates nothing but the DTOs of the page it returns. Descriptions are not kept.
+ * Rows entering and leaving the snapshot also keep {@link ListingFacets} up to date.
+ */
+@Component
+public class ListingReadModel implements ListingIndex {
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final long NO_VALUE = Long.MIN_VALUE;
+    private static final byte NO_TYPE = -1;
+    private static final ListingType[] TYPES = ListingType.values();
+    private static final BigInteger MIN_CENTS = BigInteger.valueOf(NO_VALUE + 1);
+    private static final BigInteger MAX_CENTS = BigInteger.valueOf(Long.MAX_VALUE);
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ListingFacets facets;
+
+    // distinguishes this process's versions from another instance's
+    private final String epoch = Long.toString(System.nanoTime() ^ System.currentTimeMillis(), 36);
+    private volatile long version;
+
+    private final Map<Long, Long> createdAtById = new HashMap<>();
+    private final StringDictionary conditions = new StringDictionary();
+    private final StringDictionary locations = new StringDictionary();
+
+    private int size;
+    private long[] createdAt;
+    private long[] ids;
+    private long[] rowVersions;
+    private byte[] types;
+    private long[] priceCents;
+    private long[] ownerIds;
+    private double[] latitudes;
+    private double[] longitudes;
+    private int[] conditionCodes;
+    private int[] locationCodes;
+    private String[] titles;
+
+    public ListingReadModel(ListingFacets facets) {
+        this.facets = facets;
+        allocate(INITIAL_CAPACITY);
+    }
+
+    @Override
+    public void index(Listing listing) {
+        long created = toNanos(listing.getCreatedAt() == null ? Instant.EPOCH : listing.getCreatedAt());
+        lock.writeLock().lock();
+        try {
+            Long previous = createdAtById.put(listing.getId(), created);
+            if (previous != null) {
+                removeAt(position(previous, listing.getId()));
+            }
+            int at = position(created, listing.getId());
+            insertAt(at);
+            createdAt[at] = created;
+            ids[at] = listing.getId();
+            rowVersions[at] = ++version;
+            types[at] = listing.getType() == null ? NO_TYPE : (byte) listing.getType().ordinal();
+            priceCents[at] = toCents(listing.getPrice(), RoundingMode.HALF_UP);
+            ownerIds[at] = listing.getOwnerId() == null ? NO_VALUE : listing.getOwnerId();
+            latitudes[at] = listing.getLatitude() == null ? Double.NaN : listing.getLatitude();
+            longitudes[at] = listing.getLongitude() == null ? Double.NaN : listing.getLongitude();
+            conditionCodes[at] = conditions.encode(listing.getCondition());
+            locationCodes[at] = locations.encode(listing.getLocation());
+            titles[at] = listing.getTitle();
+            facets.add(listing.getType(), listing.getCondition(), listing.getLocation());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            createdAtById.clear();
+            conditions.clear();
+            locations.clear();
+            facets.clear();
+            size = 0;
+            allocate(INITIAL_CAPACITY);
+            version++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Changes whenever any row changes; usable as a strong validator for anything derived from the snapshot.
+     */
+    public String version() {
+        return epoch + "-" + version;
+    }
+
+    /**
+     * Changes whenever this listing's row changes; a strong validator for that listing alone.
+     * Empty if the listing is not in the snapshot.
+     */
+    public Optional<String> version(long id) {
+        lock.readLock().lock();
+        try {
+            Long created = createdAtById.get(id);
+            return created == null
+                    ? Optional.empty()
+                    : Optional.of(epoch + "-" + rowVersions[position(created, id)]);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Newest-first page of listings matching every given filter. A listing without a price
+     * never matches a price bound.
+     */
+    public ListingPage page(Optional<ListingType> type,
+                            Optional<BigDecimal> minPrice,
+                            Optional<BigDecimal> maxPrice,
+                            Optional<ListingCursor> cursor,
+                            int limit) {
+        byte wantedType = type.map(t -> (byte) t.ordinal()).orElse(NO_TYPE);
+        long min = minPrice.map(p -> toCents(p, RoundingMode.CEILING)).orElse(NO_VALUE);
+        long max = maxPrice.map(p -> toCents(p, RoundingMode.FLOOR)).orElse(Long.MAX_VALUE);
+        boolean priceFiltered = minPrice.isPresent() || maxPrice.isPresent();
+
+        List<ListingDto> items = new ArrayList<>(Math.min(limit, 64));
+        String next = null;
+        int lastRow = -1;
+        lock.readLock().lock();
+        try {
+            int start = cursor
+                    .map(c -> position(toNanos(c.createdAt()), c.id()) - 1)
+                    .orElse(size - 1);
+            for (int i = start; i >= 0; i--) {
+                if (wantedType != NO_TYPE && types[i] != wantedType) {
+                    continue;
+                }
+                if (priceFiltered && (priceCents[i] == NO_VALUE || priceCents[i] < min || priceCents[i] > max)) {
+                    continue;
+                }
+                if (items.size() == limit) {
+                    next = new ListingCursor(toInstant(createdAt[lastRow]), ids[lastRow]).encode();
+                    break;
+                }
+                items.add(toDto(i));
+                lastRow = i;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return new ListingPage(items, next);
+    }
+
+    private ListingDto toDto(int row) {
+        return new ListingDto(
+                ids[row],
+                titles[row],
+                types[row] == NO_TYPE ? null : TYPES[types[row]],
+                priceCents[row] == NO_VALUE ? null : BigDecimal.valueOf(priceCents[row], 2),
+                ownerIds[row] == NO_VALUE ? null : ownerIds[row],
+                Double.isNaN(latitudes[row]) ? null : latitudes[row],
+                Double.isNaN(longitudes[row]) ? null : longitudes[row]
+        );
+    }
+
+    /**
+     * Index of the first row whose (createdAt, id) is not less than the given key.
+     */
+    private int position(long created, long id) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (createdAt[mid] < created || (createdAt[mid] == created && ids[mid] < id)) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private void insertAt(int at) {
+        if (size == ids.length) {
+            grow(size * 2);
+        }
+        int tail = size - at;
+        if (tail > 0) {
+            System.arraycopy(createdAt, at, createdAt, at + 1, tail);
+            System.arraycopy(ids, at, ids, at + 1, tail);
+            System.arraycopy(rowVersions, at, rowVersions, at + 1, tail);
+            System.arraycopy(types, at, types, at + 1, tail);
+            System.arraycopy(priceCents, at, priceCents, at + 1, tail);
+            System.arraycopy(ownerIds, at, ownerIds, at + 1, tail);
+            System.arraycopy(latitudes, at, latitudes, at + 1, tail);
+            System.arraycopy(longitudes, at, longitudes, at + 1, tail);
+            System.arraycopy(conditionCodes, at, conditionCodes, at + 1, tail);
+            System.arraycopy(locationCodes, at, locationCodes, at + 1, tail);
+            System.arraycopy(titles, at, titles, at + 1, tail);
+        }
+        size++;
+    }
+
+    private void removeAt(int at) {
+        facets.remove(types[at] == NO_TYPE ? null : TYPES[types[at]],
+                conditions.decode(conditionCodes[at]),
+                locations.decode(locationCodes[at]));
+        int tail = size - at - 1;
+        if (tail > 0) {
+            System.arraycopy(createdAt, at + 1, createdAt, at, tail);
+            System.arraycopy(ids, at + 1, ids, at, tail);
+            System.arraycopy(rowVersions, at + 1, rowVersions, at, tail);
+            System.arraycopy(types, at + 1, types, at, tail);
+            System.arraycopy(priceCents, at + 1, priceCents, at, tail);
+            System.arraycopy(ownerIds, at + 1, ownerIds, at, tail);
+            System.arraycopy(latitudes, at + 1, latitudes, at, tail);
+            System.arraycopy(longitudes, at + 1, longitudes, at, tail);
+            System.arraycopy(conditionCodes, at + 1, conditionCodes, at, tail);
+            System.arraycopy(locationCodes, at + 1, locationCodes, at, tail);
+            System.arraycopy(titles, at + 1, titles, at, tail);
+        }
+        size--;
+        titles[size] = null;
+    }
+
+    private void allocate(int capacity) {
+        createdAt = new long[capacity];
+        ids = new long[capacity];
+        rowVersions = new long[capacity];
+        types = new byte[capacity];
+        priceCents = new long[capacity];
+        ownerIds = new long[capacity];
+        latitudes = new double[capacity];
+        longitudes = new double[capacity];
+        conditionCodes = new int[capacity];
+        locationCodes = new int[capacity];
+        titles = new String[capacity];
+    }
+
+    private void grow(int capacity) {
+        createdAt = Arrays.copyOf(createdAt, capacity);
+        ids = Arrays.copyOf(ids, capacity);
+        rowVersions = Arrays.copyOf(rowVersions, capacity);
+        types = Arrays.copyOf(types, capacity);
+        priceCents = Arrays.copyOf(priceCents, capacity);
+        ownerIds = Arrays.copyOf(ownerIds, capacity);
+        latitudes = Arrays.copyOf(latitudes, capacity);
+        longitudes = Arrays.copyOf(longitudes, capacity);
+        conditionCodes = Arrays.copyOf(conditionCodes, capacity);
+        locationCodes = Arrays.copyOf(locationCodes, capacity);
+        titles = Arrays.copyOf(titles, capacity);
+    }
+
+    /**
+     * Requests cannot carry prices outside {@link com.ecocycle.marketplace.dto.CreateListingRequest#MAX_PRICE},
+     * but rows stored before that bound existed are clamped rather than allowed to fail the rebuild.
+     */
+    private static long toCents(BigDecimal price, RoundingMode rounding) {
+        if (price == null) {
+            return NO_VALUE;
+        }
+        return price.setScale(2, rounding).unscaledValue().max(MIN_CENTS).min(MAX_CENTS).longValueExact();
+    }
+
+    /**
+     * @throws ArithmeticException outside the years 1677 to 2262; {@link ListingCursor#decode} rejects such cursors
+     */
+    private static long toNanos(Instant instant) {
+        long seconds = instant.getEpochSecond();
+        long nanos = instant.getNano();
+        if (seconds < 0 && nanos > 0) {
+            // keeps the last second before Long.MIN_VALUE nanos from overflowing the multiplication
+            seconds++;
+            nanos -= 1_000_000_000L;
+        }
+        return Math.addExact(Math.multiplyExact(seconds, 1_000_000_000L), nanos);
+    }
+
+    private static Instant toInstant(long nanos) {
+        return Instant.ofEpochSecond(Math.floorDiv(nanos, 1_000_000_000L), Math.floorMod(nanos, 1_000_000_000L));
+    }
+}
@@ -0,0 +1,38 @@
+package com.ecocycle.marketplace.readmodel;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maps each distinct string to a small int code so a column can store codes instead of
+ * references. Codes are never reused; null is encoded as {@link #NULL}.
+ * Not thread-safe; {@link ListingReadModel} guards access.
+ */
+final class StringDictionary {
+
+    static final int NULL = -1;
+
+    private final Map<String, Integer> codes = new HashMap<>();
+    private final List<String> values = new ArrayList<>();
+
+    int encode(String value) {
+        if (value == null) {
+            return NULL;
+        }
+        return codes.computeIfAbsent(value, v -> {
+            values.add(v);
+            return values.size() - 1;
+        });
+    }
+
+    String decode(int code) {
+        return code == NULL ? null : values.get(code);
+    }
+
+    void clear() {
+        codes.clear();
+        values.clear();
+    }
+}
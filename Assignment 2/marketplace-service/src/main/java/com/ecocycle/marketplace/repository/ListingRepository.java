@@ -2,10 +2,58 @@ package com.ecocycle.marketplace.repository;
 
 import com.ecocycle.marketplace.model.Listing;
 import com.ecocycle.marketplace.model.ListingType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface ListingRepository extends JpaRepository<Listing, Long> {
-    List<Listing> findByType(ListingType type);
+
+    // ---- server-side cursors; callers must be inside a read-only transaction and close the stream ----
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Listing> streamAllByOrderByCreatedAtDescIdDesc();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Listing> streamAllByOrderByCreatedAtAscIdAsc();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Listing> streamByTypeOrderByCreatedAtDescIdDesc(ListingType type);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Listing> streamByCreatedAtAfterOrderByCreatedAtAscIdAsc(Instant createdAfter);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Listing> streamByTypeAndCreatedAtAfterOrderByCreatedAtAscIdAsc(ListingType type, Instant createdAfter);
+
+    // ---- facet counts, [value, count] rows ----
+
+    @Query("select l.type, count(l) from Listing l where l.type is not null group by l.type")
+    List<Object[]> countByType();
+
+    @Query("select l.condition, count(l) from Listing l where l.condition is not null group by l.condition")
+    List<Object[]> countByCondition();
+
+    @Query("select l.location, count(l) from Listing l where l.location is not null group by l.location")
+    List<Object[]> countByLocation();
 }
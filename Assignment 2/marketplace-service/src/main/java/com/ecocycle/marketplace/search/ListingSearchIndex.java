@@ -0,0 +1,187 @@
+package com.ecocycle.marketplace.search;
+
+import com.ecocycle.marketplace.index.ListingIndex;
+import com.ecocycle.marketplace.model.Listing;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process inverted index over listing title and description, ranked with BM25.
+ * <p>
+ * Every indexed listing gets a dense ordinal in insertion order, so postings are
+ * always appended and can be delta-encoded. Re-indexing a listing retires its old
+ * ordinal; retired ordinals are skipped while scoring and no longer count towards
+ * their terms' document frequency, so frequent edits do not skew idf. Queries are evaluated
+ * document-at-a-time across the query terms' postings and keep only the best
+ * {@code limit} hits in a heap.
+ */
+@Component
+public class ListingSearchIndex implements ListingIndex {
+
+    // standard BM25 parameters
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    // title terms count as if they appeared this many times
+    private static final int TITLE_WEIGHT = 2;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, PostingList> postings = new HashMap<>();
+    private final Map<Long, Integer> ordinalById = new HashMap<>();
+    private long[] listingIds = new long[1024];
+    private int[] docLengths = new int[1024];
+    // distinct terms of each live ordinal, null once retired
+    private String[][] docTerms = new String[1024][];
+    private final BitSet retired = new BitSet();
+    private int nextOrdinal;
+    private int liveDocs;
+    private long liveLength;
+
+    public record Hit(long listingId, double score) {}
+
+    @Override
+    public void index(Listing listing) {
+        Map<String, Integer> tf = new HashMap<>();
+        int docLength = 0;
+        for (String term : Tokenizer.tokenize(listing.getTitle())) {
+            tf.merge(term, TITLE_WEIGHT, Integer::sum);
+            docLength += TITLE_WEIGHT;
+        }
+        for (String term : Tokenizer.tokenize(listing.getDescription())) {
+            tf.merge(term, 1, Integer::sum);
+            docLength++;
+        }
+
+        lock.writeLock().lock();
+        try {
+            Integer previous = ordinalById.get(listing.getId());
+            if (previous != null) {
+                retire(previous);
+            }
+            int ordinal = nextOrdinal++;
+            if (ordinal == listingIds.length) {
+                listingIds = Arrays.copyOf(listingIds, ordinal * 2);
+                docLengths = Arrays.copyOf(docLengths, ordinal * 2);
+                docTerms = Arrays.copyOf(docTerms, ordinal * 2);
+            }
+            listingIds[ordinal] = listing.getId();
+            docLengths[ordinal] = docLength;
+            docTerms[ordinal] = tf.keySet().toArray(String[]::new);
+            ordinalById.put(listing.getId(), ordinal);
+            liveDocs++;
+            liveLength += docLength;
+            tf.forEach((term, freq) -> postings.computeIfAbsent(term, t -> new PostingList()).add(ordinal, freq));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            ordinalById.clear();
+            listingIds = new long[1024];
+            docLengths = new int[1024];
+            docTerms = new String[1024][];
+            retired.clear();
+            nextOrdinal = 0;
+            liveDocs = 0;
+            liveLength = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} listing ids ordered by descending relevance.
+     * A listing matches when it contains at least one query term.
+     */
+    public List<Hit> search(String query, int limit) {
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(Tokenizer.tokenize(query)));
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            List<PostingList.Cursor> cursors = new ArrayList<>(terms.size());
+            List<Double> idfs = new ArrayList<>(terms.size());
+            for (String term : terms) {
+                PostingList list = postings.get(term);
+                if (list != null) {
+                    PostingList.Cursor c = list.cursor();
+                    c.next();
+                    cursors.add(c);
+                    idfs.add(idf(list.docFreq()));
+                }
+            }
+            if (cursors.isEmpty()) {
+                return List.of();
+            }
+
+            double avgLength = liveDocs == 0 ? 1 : (double) liveLength / liveDocs;
+            PriorityQueue<Hit> best = new PriorityQueue<>(limit + 1, (a, b) -> Double.compare(a.score(), b.score()));
+
+            while (true) {
+                int doc = Integer.MAX_VALUE;
+                for (PostingList.Cursor c : cursors) {
+                    doc = Math.min(doc, c.ordinal());
+                }
+                if (doc == Integer.MAX_VALUE) {
+                    break;
+                }
+
+                double score = 0;
+                for (int i = 0; i < cursors.size(); i++) {
+                    PostingList.Cursor c = cursors.get(i);
+                    if (c.ordinal() == doc) {
+                        double norm = K1 * (1 - B + B * docLengths[doc] / avgLength);
+                        score += idfs.get(i) * c.tf() * (K1 + 1) / (c.tf() + norm);
+                        c.next();
+                    }
+                }
+                if (retired.get(doc)) {
+                    continue;
+                }
+                if (best.size() < limit) {
+                    best.add(new Hit(listingIds[doc], score));
+                } else if (score > best.peek().score()) {
+                    best.poll();
+                    best.add(new Hit(listingIds[doc], score));
+                }
+            }
+
+            List<Hit> hits = new ArrayList<>(best);
+            hits.sort((a, b) -> Double.compare(b.score(), a.score()));
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private double idf(int docFreq) {
+        return Math.log(1 + (liveDocs - docFreq + 0.5) / (docFreq + 0.5));
+    }
+
+    private void retire(int ordinal) {
+        for (String term : docTerms[ordinal]) {
+            postings.get(term).retire();
+        }
+        docTerms[ordinal] = null;
+        retired.set(ordinal);
+        liveDocs--;
+        liveLength -= docLengths[ordinal];
+    }
+}
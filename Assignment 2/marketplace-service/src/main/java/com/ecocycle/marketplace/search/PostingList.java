@@ -0,0 +1,103 @@
+package com.ecocycle.marketplace.search;
+
+import java.util.Arrays;
+
+/**
+ * Append-only list of (document ordinal, term frequency) pairs for one term.
+ * Ordinals are stored as gaps from the previous ordinal and every number is
+ * written as a variable-length integer, so a typical posting takes 2 bytes.
+ * Postings of retired documents stay in place but stop counting towards
+ * {@link #docFreq()}. Not thread-safe; {@link ListingSearchIndex} guards access.
+ */
+final class PostingList {
+
+    private byte[] data = new byte[8];
+    private int length;
+    private int lastOrdinal = -1;
+    private int docFreq;
+
+    /**
+     * @param ordinal must be greater than every ordinal added before
+     */
+    void add(int ordinal, int tf) {
+        if (ordinal <= lastOrdinal) {
+            throw new IllegalArgumentException("Ordinals must be added in increasing order");
+        }
+        ensureCapacity(10);
+        writeVarInt(ordinal - lastOrdinal);
+        writeVarInt(tf);
+        lastOrdinal = ordinal;
+        docFreq++;
+    }
+
+    /**
+     * Number of live documents containing the term.
+     */
+    int docFreq() {
+        return docFreq;
+    }
+
+    /**
+     * Called when a document holding this term is retired.
+     */
+    void retire() {
+        docFreq--;
+    }
+
+    Cursor cursor() {
+        return new Cursor();
+    }
+
+    private void ensureCapacity(int extra) {
+        if (length + extra > data.length) {
+            data = Arrays.copyOf(data, Math.max(data.length * 2, length + extra));
+        }
+    }
+
+    private void writeVarInt(int value) {
+        while ((value & ~0x7F) != 0) {
+            data[length++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        data[length++] = (byte) value;
+    }
+
+    /**
+     * Forward-only reader; {@link #ordinal()} is {@link Integer#MAX_VALUE} once exhausted.
+     */
+    final class Cursor {
+        private int pos;
+        private int ordinal = -1;
+        private int tf;
+
+        boolean next() {
+            if (pos >= length) {
+                ordinal = Integer.MAX_VALUE;
+                return false;
+            }
+            ordinal += readVarInt();
+            tf = readVarInt();
+            return true;
+        }
+
+        int ordinal() {
+            return ordinal;
+        }
+
+        int tf() {
+            return tf;
+        }
+
+        private int readVarInt() {
+            int value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[pos++];
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            return value;
+        }
+    }
+}
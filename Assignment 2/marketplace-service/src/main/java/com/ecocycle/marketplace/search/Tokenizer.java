@@ -0,0 +1,52 @@
+package com.ecocycle.marketplace.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Splits free text into normalized terms: accents folded, lower-cased,
+ * split on anything that is not a letter or digit, stop words dropped
+ * and simple English plurals reduced to their singular form.
+ */
+public final class Tokenizer {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "in", "is",
+            "it", "of", "on", "or", "the", "this", "to", "with"
+    );
+
+    private Tokenizer() {
+    }
+
+    public static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return terms;
+        }
+        String folded = COMBINING_MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFKD)).replaceAll("");
+        for (String raw : SEPARATORS.split(folded.toLowerCase(Locale.ROOT))) {
+            if (raw.length() < 2 || STOP_WORDS.contains(raw)) {
+                continue;
+            }
+            terms.add(stem(raw));
+        }
+        return terms;
+    }
+
+    private static String stem(String term) {
+        if (term.length() > 4 && term.endsWith("ies")) {
+            return term.substring(0, term.length() - 3) + "y";
+        }
+        if (term.length() > 3 && term.endsWith("s")
+                && !term.endsWith("ss") && !term.endsWith("us") && !term.endsWith("is")) {
+            return term.substring(0, term.length() - 1);
+        }
+        return term;
+    }
+}
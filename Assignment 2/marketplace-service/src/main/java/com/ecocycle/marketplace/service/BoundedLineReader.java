@@ -0,0 +1,67 @@
+package com.ecocycle.marketplace.service;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Reads lines like {@link java.io.BufferedReader#readLine()}, but never buffers more than
+ * {@code maxLength} characters of one line: the rest of a longer line is skipped unread into
+ * memory, and the line is reported as too long. LF, CR and CRLF all end a line.
+ */
+class BoundedLineReader {
+
+    private final Reader in;
+    private final int maxLength;
+    private final StringBuilder line = new StringBuilder();
+    private int pending = -2;
+    private boolean tooLong;
+
+    BoundedLineReader(Reader in, int maxLength) {
+        this.in = in;
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * @return the next line without its terminator, or null at end of input; when
+     * {@link #tooLong()} is true afterwards, only its first {@code maxLength} characters
+     */
+    String next() throws IOException {
+        int c = read();
+        if (c == -1) {
+            return null;
+        }
+        line.setLength(0);
+        tooLong = false;
+        while (c != -1 && c != '\n' && c != '\r') {
+            if (line.length() < maxLength) {
+                line.append((char) c);
+            } else {
+                tooLong = true;
+            }
+            c = read();
+        }
+        if (c == '\r') {
+            int peek = read();
+            if (peek != '\n') {
+                pending = peek;
+            }
+        }
+        return line.toString();
+    }
+
+    /**
+     * Whether the line last returned by {@link #next()} exceeded the limit.
+     */
+    boolean tooLong() {
+        return tooLong;
+    }
+
+    private int read() throws IOException {
+        if (pending != -2) {
+            int c = pending;
+            pending = -2;
+            return c;
+        }
+        return in.read();
+    }
+}
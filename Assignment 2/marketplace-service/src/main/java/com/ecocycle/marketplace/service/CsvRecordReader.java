@@ -0,0 +1,97 @@
+package com.ecocycle.marketplace.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal RFC 4180 reader: comma separated, fields optionally wrapped in double quotes,
+ * {@code ""} inside quotes is a literal quote and quoted fields may span lines.
+ * Reads one record at a time from the underlying reader and reads at most
+ * {@code maxRecordLength} characters of one record, so memory stays bounded on bad input.
+ */
+class CsvRecordReader {
+
+    private final Reader in;
+    private final int maxRecordLength;
+    private int pending = -2;
+
+    CsvRecordReader(Reader in, int maxRecordLength) {
+        this.in = in;
+        this.maxRecordLength = maxRecordLength;
+    }
+
+    /**
+     * @return the next record's fields, or null at end of input
+     * @throws MalformedRecordException if the input ends inside a quoted field, leaving the reader at end of
+     * input, or if the record holds more than {@code maxRecordLength} characters, leaving it inside the record
+     */
+    List<String> next() throws IOException {
+        int c = read();
+        if (c == -1) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        int length = 0;
+        while (true) {
+            if (++length > maxRecordLength) {
+                throw new MalformedRecordException("Record longer than " + maxRecordLength + " characters");
+            }
+            if (quoted) {
+                if (c == -1) {
+                    throw new MalformedRecordException("Unterminated quoted field");
+                }
+                if (c == '"') {
+                    int peek = read();
+                    if (peek == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        c = peek;
+                        continue;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                if (c == '\r') {
+                    int peek = read();
+                    if (peek != '\n') {
+                        pending = peek;
+                    }
+                }
+                fields.add(field.toString());
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    private int read() throws IOException {
+        if (pending != -2) {
+            int c = pending;
+            pending = -2;
+            return c;
+        }
+        return in.read();
+    }
+
+    /**
+     * The input itself is not valid CSV, as opposed to the stream failing to be read.
+     */
+    static final class MalformedRecordException extends IOException {
+        MalformedRecordException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package com.ecocycle.marketplace.service;
+
+import com.ecocycle.marketplace.dto.CreateListingRequest;
+import com.ecocycle.marketplace.dto.ListingImportResult;
+import com.ecocycle.marketplace.model.ListingType;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk listing import from NDJSON or CSV.
+ * <p>
+ * The body is parsed one row at a time and valid rows are saved in transactions of at most
+ * {@code marketplace.import.batch-size} rows, so memory does not depend on the size of the
+ * upload. Because the request body is only read as fast as batches are committed, a client
+ * that sends faster than the database can absorb is held back by TCP flow control.
+ */
+@Service
+public class ListingImportService {
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private final ListingService listings;
+    private final ObjectReader ndjsonRowReader;
+    private final Validator validator;
+    private final int batchSize;
+    private final int maxRecordLength;
+
+    public ListingImportService(ListingService listings,
+                                ObjectMapper mapper,
+                                Validator validator,
+                                @Value("${marketplace.import.batch-size:500}") int batchSize,
+                                @Value("${marketplace.import.max-record-length:65536}") int maxRecordLength) {
+        this.listings = listings;
+        this.ndjsonRowReader = mapper.readerFor(CreateListingRequest.class);
+        this.validator = validator;
+        this.batchSize = batchSize;
+        this.maxRecordLength = maxRecordLength;
+    }
+
+    /**
+     * One JSON object per line, using the same fields as {@code POST /listings}. Blank lines are skipped.
+     * A line longer than {@code marketplace.import.max-record-length} characters is skipped and reported.
+     */
+    public ListingImportResult importNdjson(InputStream body, Long ownerId) throws IOException {
+        BoundedLineReader reader = new BoundedLineReader(utf8(body), maxRecordLength);
+        ImportRun run = new ImportRun(ownerId);
+        String line;
+        while ((line = reader.next()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            long row = run.nextRow();
+            if (reader.tooLong()) {
+                run.fail(row, "Line longer than " + maxRecordLength + " characters");
+                continue;
+            }
+            try {
+                CreateListingRequest req = ndjsonRowReader.readValue(line);
+                if (req == null) {
+                    run.fail(row, "Expected a JSON object");
+                } else {
+                    run.accept(row, req);
+                }
+            } catch (JsonProcessingException e) {
+                run.fail(row, "Malformed JSON: " + e.getOriginalMessage());
+            }
+        }
+        return run.finish();
+    }
+
+    /**
+     * A header row naming the columns (any order, case-insensitive: title, description, type,
+     * price, condition, location, latitude, longitude) followed by one listing per record.
+     * A record longer than {@code marketplace.import.max-record-length} characters ends the import
+     * like any other malformed record, since where it ends cannot be told without reading it.
+     */
+    public ListingImportResult importCsv(InputStream body, Long ownerId) throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(utf8(body), maxRecordLength);
+        ImportRun run = new ImportRun(ownerId);
+        List<String> header;
+        try {
+            header = reader.next();
+        } catch (CsvRecordReader.MalformedRecordException e) {
+            run.fail(0, "Malformed header: " + e.getMessage());
+            return run.finish();
+        }
+        if (header == null) {
+            return run.finish();
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+
+        while (true) {
+            List<String> fields;
+            try {
+                fields = reader.next();
+            } catch (CsvRecordReader.MalformedRecordException e) {
+                // the rest of the input was swallowed by an open quote or an over-long record, so this is the last row
+                run.fail(run.nextRow(), "Malformed CSV: " + e.getMessage());
+                break;
+            }
+            if (fields == null) {
+                break;
+            }
+            if (fields.size() == 1 && fields.get(0).isBlank()) {
+                continue;
+            }
+            long row = run.nextRow();
+            try {
+                run.accept(row, fromCsv(columns, fields));
+            } catch (IllegalArgumentException e) {
+                run.fail(row, "Invalid value: " + e.getMessage());
+            }
+        }
+        return run.finish();
+    }
+
+    private static BufferedReader utf8(InputStream body) {
+        return new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+    }
+
+    private CreateListingRequest fromCsv(Map<String, Integer> columns, List<String> fields) {
+        String type = cell(columns, fields, "type");
+        String price = cell(columns, fields, "price");
+        String latitude = cell(columns, fields, "latitude");
+        String longitude = cell(columns, fields, "longitude");
+        return new CreateListingRequest(
+                cell(columns, fields, "title"),
+                cell(columns, fields, "description"),
+                type == null ? null : ListingType.valueOf(type.toUpperCase(Locale.ROOT)),
+                price == null ? null : new BigDecimal(price),
+                cell(columns, fields, "condition"),
+                cell(columns, fields, "location"),
+                latitude == null ? null : Double.valueOf(latitude),
+                longitude == null ? null : Double.valueOf(longitude)
+        );
+    }
+
+    private static String cell(Map<String, Integer> columns, List<String> fields, String name) {
+        Integer i = columns.get(name);
+        if (i == null || i >= fields.size() || fields.get(i).isBlank()) {
+            return null;
+        }
+        return fields.get(i).trim();
+    }
+
+    /**
+     * Counters and the pending batch for a single import request.
+     */
+    private final class ImportRun {
+        private final Long ownerId;
+        private final List<CreateListingRequest> pending = new ArrayList<>(batchSize);
+        private final List<Long> pendingRows = new ArrayList<>(batchSize);
+        private final List<ListingImportResult.RowError> errors = new ArrayList<>();
+        private long received;
+        private long created;
+        private long failed;
+
+        ImportRun(Long ownerId) {
+            this.ownerId = ownerId;
+        }
+
+        long nextRow() {
+            return ++received;
+        }
+
+        void accept(long row, CreateListingRequest req) {
+            Set<ConstraintViolation<CreateListingRequest>> violations = validator.validate(req);
+            if (!violations.isEmpty()) {
+                fail(row, violations.stream()
+                        .map(v -> v.getPropertyPath() + " " + v.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+                return;
+            }
+            pending.add(req);
+            pendingRows.add(row);
+            if (pending.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void fail(long row, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new ListingImportResult.RowError(row, message));
+            }
+        }
+
+        ListingImportResult finish() {
+            flush();
+            return new ListingImportResult(received, created, failed, errors);
+        }
+
+        private void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            try {
+                created += listings.createBatch(pending, ownerId);
+            } catch (RuntimeException e) {
+                saveOneByOne();
+            }
+            pending.clear();
+            pendingRows.clear();
+        }
+
+        /**
+         * The batch rolled back as a whole; retries its rows in their own transactions
+         * so only the rows the database actually rejects are reported.
+         * Refactoring: Extract Method - Reduces Long Method smell.
+         */
+        private void saveOneByOne() {
+            for (int i = 0; i < pending.size(); i++) {
+                try {
+                    created += listings.createBatch(List.of(pending.get(i)), ownerId);
+                } catch (RuntimeException e) {
+                    fail(pendingRows.get(i), "Rejected by database: " + e.getMessage());
+                }
+            }
+        }
+    }
+}
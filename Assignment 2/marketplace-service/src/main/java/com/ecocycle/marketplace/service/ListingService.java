@@ -1,25 +1,87 @@
 package com.ecocycle.marketplace.service;
 
+import com.ecocycle.marketplace.cache.ListingCache;
 import com.ecocycle.marketplace.dto.CreateListingRequest;
+import com.ecocycle.marketplace.dto.ListingBatchDto;
+import com.ecocycle.marketplace.dto.ListingCursor;
 import com.ecocycle.marketplace.dto.ListingDto;
+import com.ecocycle.marketplace.dto.ListingExportRow;
+import com.ecocycle.marketplace.dto.ListingFacetsDto;
+import com.ecocycle.marketplace.dto.ListingPage;
+import com.ecocycle.marketplace.dto.NearbyListingDto;
+import com.ecocycle.marketplace.geo.GeoGridIndex;
+import com.ecocycle.marketplace.index.ListingIndexer;
 import com.ecocycle.marketplace.model.Listing;
 import com.ecocycle.marketplace.model.ListingType;
+import com.ecocycle.marketplace.readmodel.ListingFacets;
+import com.ecocycle.marketplace.readmodel.ListingReadModel;
 import com.ecocycle.marketplace.repository.ListingRepository;
+import com.ecocycle.marketplace.search.ListingSearchIndex;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class ListingService {
 
     private final ListingRepository repo;
+    private final EntityManager em;
+    private final ListingIndexer indexer;
+    private final ListingSearchIndex searchIndex;
+    private final GeoGridIndex geoIndex;
+    private final ListingReadModel readModel;
+    private final ListingFacets facets;
+    private final ListingCache cache;
+    private final TransactionTemplate tx;
 
     public ListingDto create(CreateListingRequest req, Long ownerId) {
-        Listing l = new Listing(
+        Listing saved = repo.save(newListing(req, ownerId));
+        indexer.onSaved(saved);
+        ListingDto dto = ListingDto.from(saved);
+        cache.put(dto);
+        return dto;
+    }
+
+    /**
+     * Saves all requests in one transaction and indexes them once it has committed.
+     * Bulk rows are not pushed into the read cache so an import cannot evict the hot set.
+     *
+     * @return the number of listings created
+     */
+    public int createBatch(List<CreateListingRequest> reqs, Long ownerId) {
+        List<Listing> saved = tx.execute(status -> {
+            List<Listing> rows = repo.saveAll(reqs.stream().map(r -> newListing(r, ownerId)).toList());
+            // write and release the chunk now, so the persistence context never holds more than one chunk
+            em.flush();
+            em.clear();
+            return rows;
+        });
+        for (Listing l : saved) {
+            indexer.onSaved(l);
+        }
+        return saved.size();
+    }
+
+    private Listing newListing(CreateListingRequest req, Long ownerId) {
+        return new Listing(
                 null,
                 req.title(),
                 req.description(),
@@ -27,23 +89,132 @@ public class ListingService {
                 req.price(),
                 req.condition(),
                 req.location(),
+                req.latitude(),
+                req.longitude(),
                 ownerId,
                 Instant.now()
         );
-        return ListingDto.from(repo.save(l));
     }
 
+    /**
+     * Returns one page of listings, newest first, served from the in-memory read model
+     * without touching the database.
+     */
+    public ListingPage list(Optional<ListingType> type,
+                            Optional<BigDecimal> minPrice,
+                            Optional<BigDecimal> maxPrice,
+                            Optional<ListingCursor> cursor,
+                            int limit) {
+        return readModel.page(type, minPrice, maxPrice, cursor, limit);
+    }
+
+    /**
+     * Validator for {@link #list}: unchanged as long as no listing has been written since.
+     */
+    public String catalogVersion() {
+        return readModel.version();
+    }
+
+    /**
+     * Validator for {@link #get}, answered from the read model without loading the listing.
+     */
+    public Optional<String> version(Long id) {
+        return readModel.version(id);
+    }
+
+    public ListingFacetsDto facets() {
+        return facets.snapshot();
+    }
 
-    public List<ListingDto> list(Optional<ListingType> type) {
-        return (type.isPresent()
-                ? repo.findByType(type.get())
-                : repo.findAll())
-                .stream().map(ListingDto::from).toList();
+    /**
+     * Pushes every matching listing to {@code sink} as the JDBC cursor advances.
+     * Each entity is detached once mapped so the persistence context stays empty.
+     */
+    @Transactional(readOnly = true)
+    public void stream(Optional<ListingType> type, Consumer<ListingDto> sink) {
+        try (Stream<Listing> rows = type.isPresent()
+                ? repo.streamByTypeOrderByCreatedAtDescIdDesc(type.get())
+                : repo.streamAllByOrderByCreatedAtDescIdDesc()) {
+            rows.forEach(l -> {
+                sink.accept(ListingDto.from(l));
+                em.detach(l);
+            });
+        }
+    }
+
+    /**
+     * Pushes every listing created after {@code createdAfter} (all of them if absent) to {@code sink},
+     * oldest first, so an incremental export can resume from the last createdAt it saw.
+     */
+    @Transactional(readOnly = true)
+    public void export(Optional<ListingType> type, Optional<Instant> createdAfter, Consumer<ListingExportRow> sink) {
+        Instant after = createdAfter.orElse(Instant.EPOCH);
+        try (Stream<Listing> rows = type.isPresent()
+                ? repo.streamByTypeAndCreatedAtAfterOrderByCreatedAtAscIdAsc(type.get(), after)
+                : repo.streamByCreatedAtAfterOrderByCreatedAtAscIdAsc(after)) {
+            rows.forEach(l -> {
+                sink.accept(ListingExportRow.from(l));
+                em.detach(l);
+            });
+        }
+    }
+
+    /**
+     * Full-text search over title and description, best match first.
+     */
+    public List<ListingDto> search(String query, int limit) {
+        List<Long> ids = searchIndex.search(query, limit).stream()
+                .map(ListingSearchIndex.Hit::listingId)
+                .toList();
+        Map<Long, ListingDto> byId = loadAll(ids);
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    /**
+     * Listings with coordinates within {@code radiusKm} of the point, closest first.
+     */
+    public List<NearbyListingDto> nearby(double lat, double lon, double radiusKm,
+                                         Optional<ListingType> type, int limit) {
+        List<GeoGridIndex.Hit> hits = geoIndex.nearby(lat, lon, radiusKm, type, limit);
+        Map<Long, ListingDto> byId = loadAll(hits.stream().map(GeoGridIndex.Hit::listingId).toList());
+        return hits.stream()
+                .filter(h -> byId.containsKey(h.listingId()))
+                .map(h -> new NearbyListingDto(byId.get(h.listingId()), h.distanceKm()))
+                .toList();
     }
 
     public ListingDto get(Long id) {
-        return repo.findById(id)
-                .map(ListingDto::from)
-                .orElseThrow(() -> new RuntimeException("Listing not found"));
+        ListingDto dto = cache.get(id, key -> repo.findById(key).map(ListingDto::from).orElse(null));
+        if (dto == null) {
+            throw new RuntimeException("Listing not found");
+        }
+        return dto;
+    }
+
+    /**
+     * Multi-get through the listing cache; all cache misses are fetched with one IN query.
+     */
+    public ListingBatchDto getAll(Collection<Long> ids) {
+        Set<Long> unique = new LinkedHashSet<>(ids);
+        Map<Long, ListingDto> found = loadAll(unique);
+        Map<Long, ListingDto> ordered = new LinkedHashMap<>();
+        List<Long> notFound = new ArrayList<>();
+        for (Long id : unique) {
+            ListingDto dto = found.get(id);
+            if (dto == null) {
+                notFound.add(id);
+            } else {
+                ordered.put(id, dto);
+            }
+        }
+        return new ListingBatchDto(ordered, notFound);
+    }
+
+    private Map<Long, ListingDto> loadAll(Collection<Long> ids) {
+        return cache.getAll(ids, missing -> repo.findAllById(List.copyOf(missing)).stream()
+                .collect(Collectors.toMap(Listing::getId, ListingDto::from)));
     }
 }
@@ -0,0 +1,112 @@
+package com.ecocycle.common.security;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for JwtUtil.validateAndExtractUserId()
+ */
+@DisplayName("JwtUtil.validateAndExtractUserId() Tests")
+class JwtUtilTest {
+
+    private static final String SECRET = "my-super-long-secret-key-ecocycle-123456789";
+    private static final long ONE_DAY_MS = 86_400_000L;
+
+    private final JwtUtil jwtUtil = new JwtUtil(SECRET, ONE_DAY_MS);
+
+    /**
+     * TEST CASE 1: A valid token keeps resolving to its user once it is cached
+     */
+    @Test
+    @DisplayName("JWT-1: Valid token returns its user id on every call")
+    void testValidate_ValidToken_ShouldReturnUserIdRepeatedly() {
+        String token = jwtUtil.generateToken(42L);
+
+        assertEquals(42L, jwtUtil.validateAndExtractUserId(token));
+        assertEquals(42L, jwtUtil.validateAndExtractUserId(token));
+    }
+
+    /**
+     * TEST CASE 2: Caching one token does not let a tampered copy of it through
+     */
+    @Test
+    @DisplayName("JWT-2: Token with an altered signature is rejected after the original was cached")
+    void testValidate_TamperedSignature_ShouldBeRejected() {
+        String token = jwtUtil.generateToken(42L);
+        jwtUtil.validateAndExtractUserId(token);
+
+        int i = token.length() - 10;
+        String tampered = token.substring(0, i) + (token.charAt(i) == 'A' ? 'B' : 'A') + token.substring(i + 1);
+
+        assertThrows(SignatureException.class, () -> jwtUtil.validateAndExtractUserId(tampered));
+    }
+
+    /**
+     * TEST CASE 3: Tokens signed with another key are rejected
+     */
+    @Test
+    @DisplayName("JWT-3: Token signed with a different secret is rejected")
+    void testValidate_ForeignKey_ShouldBeRejected() {
+        String token = new JwtUtil("another-long-secret-key-ecocycle-1234567890", ONE_DAY_MS).generateToken(42L);
+
+        assertThrows(SignatureException.class, () -> jwtUtil.validateAndExtractUserId(token));
+    }
+
+    /**
+     * TEST CASE 4: Expired tokens are rejected
+     */
+    @Test
+    @DisplayName("JWT-4: Expired token is rejected")
+    void testValidate_ExpiredToken_ShouldBeRejected() {
+        String token = new JwtUtil(SECRET, -60_000L).generateToken(42L);
+
+        assertThrows(ExpiredJwtException.class, () -> jwtUtil.validateAndExtractUserId(token));
+    }
+
+    /**
+     * TEST CASE 5: A cached token stops being accepted when it expires
+     */
+    @Test
+    @DisplayName("JWT-5: Cached token is rejected once it expires")
+    void testValidate_CachedTokenExpires_ShouldBeRejected() throws InterruptedException {
+        // exp has second precision, so this token expires at the start of the next second or the one after
+        Date expiresAt = new Date((System.currentTimeMillis() / 1000 + 2) * 1000);
+        String token = Jwts.builder()
+                .subject("42")
+                .expiration(expiresAt)
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+        assertEquals(42L, jwtUtil.validateAndExtractUserId(token));
+
+        Thread.sleep(expiresAt.getTime() - System.currentTimeMillis() + 50);
+
+        assertThrows(ExpiredJwtException.class, () -> jwtUtil.validateAndExtractUserId(token));
+    }
+
+    /**
+     * TEST CASE 6: Cache keys are SHA-256 digests of fixed size, never the token itself
+     */
+    @Test
+    @DisplayName("JWT-6: Cache key is the Base64 SHA-256 of the token, whatever its length")
+    void testDigest_AnyToken_ShouldBeSha256() throws Exception {
+        String shortToken = jwtUtil.generateToken(1L);
+        String longToken = new JwtUtil(SECRET, ONE_DAY_MS * 365_000).generateToken(Long.MAX_VALUE);
+
+        byte[] expected = MessageDigest.getInstance("SHA-256").digest(shortToken.getBytes(StandardCharsets.UTF_8));
+        assertEquals(Base64.getEncoder().encodeToString(expected), JwtUtil.digest(shortToken));
+        assertEquals(44, JwtUtil.digest(shortToken).length());
+        assertEquals(44, JwtUtil.digest(longToken).length());
+        assertNotEquals(JwtUtil.digest(shortToken), JwtUtil.digest(longToken));
+    }
+}
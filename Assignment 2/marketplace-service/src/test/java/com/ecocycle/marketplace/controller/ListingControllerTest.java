@@ -0,0 +1,89 @@
+package com.ecocycle.marketplace.controller;
+
+import com.ecocycle.marketplace.dto.ListingDto;
+import com.ecocycle.marketplace.model.ListingType;
+import com.ecocycle.marketplace.service.ListingImportService;
+import com.ecocycle.marketplace.service.ListingService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Test class for the conditional GET /listings/{id}
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ListingController GET /listings/{id} Tests")
+class ListingControllerTest {
+
+    @Mock
+    private ListingService listingService;
+
+    @Mock
+    private ListingImportService importService;
+
+    private MockMvc mvc;
+
+    @BeforeEach
+    void setUp() {
+        mvc = MockMvcBuilders.standaloneSetup(new ListingController(listingService, importService, new ObjectMapper()))
+                .build();
+    }
+
+    /**
+     * TEST CASE 1: A fresh GET returns the body with the row version as ETag
+     */
+    @Test
+    @DisplayName("ETAG-1: Unconditional GET returns the listing with its version as ETag")
+    void testGet_NoIfNoneMatch_ShouldReturnBodyAndEtag() throws Exception {
+        when(listingService.version(1L)).thenReturn(Optional.of("e-7"));
+        when(listingService.get(1L)).thenReturn(
+                new ListingDto(1L, "Desk", ListingType.SALE, BigDecimal.TEN, 3L, null, null));
+
+        mvc.perform(get("/listings/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"e-7\""));
+    }
+
+    /**
+     * TEST CASE 2: A matching If-None-Match is answered without loading the listing
+     */
+    @Test
+    @DisplayName("ETAG-2: Matching If-None-Match gets a 304 and the listing is never loaded")
+    void testGet_MatchingIfNoneMatch_ShouldReturn304WithoutLoading() throws Exception {
+        when(listingService.version(1L)).thenReturn(Optional.of("e-7"));
+
+        mvc.perform(get("/listings/1").header("If-None-Match", "\"e-7\""))
+                .andExpect(status().isNotModified());
+
+        verify(listingService, never()).get(anyLong());
+    }
+
+    /**
+     * TEST CASE 3: A stale If-None-Match gets the current body
+     */
+    @Test
+    @DisplayName("ETAG-3: Stale If-None-Match gets a 200 with the new ETag")
+    void testGet_StaleIfNoneMatch_ShouldReturnBody() throws Exception {
+        when(listingService.version(1L)).thenReturn(Optional.of("e-8"));
+        when(listingService.get(1L)).thenReturn(
+                new ListingDto(1L, "Desk", ListingType.SALE, BigDecimal.TEN, 3L, null, null));
+
+        mvc.perform(get("/listings/1").header("If-None-Match", "\"e-7\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"e-8\""));
+    }
+}
@@ -0,0 +1,93 @@
+package com.ecocycle.marketplace.dto;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for ListingCursor.encode() and ListingCursor.decode()
+ */
+@DisplayName("ListingCursor Tests")
+class ListingCursorTest {
+
+    private static String encodeRaw(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * TEST CASE 1: A cursor survives an encode/decode round trip with nanosecond precision
+     */
+    @Test
+    @DisplayName("CUR-1: Encoded cursor decodes to the same position")
+    void testDecode_EncodedCursor_ShouldRoundTrip() {
+        ListingCursor cursor = new ListingCursor(Instant.parse("2025-10-01T12:34:56.123456789Z"), 42L);
+
+        assertEquals(cursor, ListingCursor.decode(cursor.encode()));
+    }
+
+    /**
+     * TEST CASE 2: The encoded form is URL-safe
+     */
+    @Test
+    @DisplayName("CUR-2: Encoded cursor contains no characters that need URL escaping")
+    void testEncode_ShouldBeUrlSafe() {
+        String encoded = new ListingCursor(Instant.parse("2025-10-01T12:34:56Z"), Long.MAX_VALUE).encode();
+
+        assertTrue(encoded.matches("[A-Za-z0-9_-]+"), encoded);
+    }
+
+    /**
+     * TEST CASE 3: Input that is not Base64 is rejected
+     */
+    @Test
+    @DisplayName("CUR-3: Non-Base64 input is rejected as malformed")
+    void testDecode_NotBase64_ShouldThrowIllegalArgument() {
+        assertThrows(IllegalArgumentException.class, () -> ListingCursor.decode("not a cursor!"));
+    }
+
+    /**
+     * TEST CASE 4: Wrong number of fields or non-numeric fields are rejected
+     */
+    @Test
+    @DisplayName("CUR-4: Missing or non-numeric fields are rejected as malformed")
+    void testDecode_BadFields_ShouldThrowIllegalArgument() {
+        assertThrows(IllegalArgumentException.class, () -> ListingCursor.decode(encodeRaw("1:2")));
+        assertThrows(IllegalArgumentException.class, () -> ListingCursor.decode(encodeRaw("a:0:1")));
+        assertThrows(IllegalArgumentException.class, () -> ListingCursor.decode(encodeRaw("1:0:x")));
+    }
+
+    /**
+     * TEST CASE 5: A forged timestamp outside the Instant range is rejected, not leaked as DateTimeException
+     */
+    @Test
+    @DisplayName("CUR-5: Out-of-range timestamps are rejected as malformed")
+    void testDecode_OutOfRangeTimestamp_ShouldThrowIllegalArgument() {
+        assertThrows(IllegalArgumentException.class, () -> ListingCursor.decode(encodeRaw(Long.MAX_VALUE + ":0:1")));
+        assertThrows(IllegalArgumentException.class,
+                () -> ListingCursor.decode(encodeRaw("31556889864403199:" + Long.MAX_VALUE + ":1")));
+    }
+
+    /**
+     * TEST CASE 6: Instants the read model cannot hold as epoch nanoseconds are rejected, not wrapped around
+     */
+    @Test
+    @DisplayName("CUR-6: Timestamps beyond the long-nanosecond range are rejected as malformed")
+    void testDecode_BeyondNanosecondRange_ShouldThrowIllegalArgument() {
+        Instant last = Instant.ofEpochSecond(0, Long.MAX_VALUE);
+        Instant first = Instant.ofEpochSecond(0, Long.MIN_VALUE);
+
+        assertEquals(last, ListingCursor.decode(new ListingCursor(last, 1L).encode()).createdAt());
+        assertEquals(first, ListingCursor.decode(new ListingCursor(first, 1L).encode()).createdAt());
+        assertThrows(IllegalArgumentException.class,
+                () -> ListingCursor.decode(new ListingCursor(last.plusNanos(1), 1L).encode()));
+        assertThrows(IllegalArgumentException.class,
+                () -> ListingCursor.decode(new ListingCursor(Instant.parse("2263-01-01T00:00:00Z"), 1L).encode()));
+        assertThrows(IllegalArgumentException.class,
+                () -> ListingCursor.decode(new ListingCursor(first.minusNanos(1), 1L).encode()));
+    }
+}
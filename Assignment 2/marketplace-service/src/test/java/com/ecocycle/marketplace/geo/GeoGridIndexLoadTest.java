@@ -0,0 +1,102 @@
+package com.ecocycle.marketplace.geo;
+
+import com.ecocycle.marketplace.model.Listing;
+import com.ecocycle.marketplace.model.ListingType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Load test for GeoGridIndex.nearby().
+ *
+ * One million listings are spread over the continental US and the same 10 km SALE queries
+ * are answered by the grid and by a scan over every point, the cost every query paid before
+ * the index existed. The grid only scans the handful of cells around each point.
+ */
+@DisplayName("GeoGridIndex.nearby() Load Test")
+class GeoGridIndexLoadTest {
+
+    private static final int LISTINGS = 1_000_000;
+    private static final int QUERIES = 200;
+    private static final double RADIUS_KM = 10;
+
+    @Test
+    @DisplayName("GEO-LOAD-1: Radius queries over 1M listings cost a few cells, not a catalog scan")
+    void testNearby_MillionListings_ShouldBeFarCheaperThanFullScan() {
+        Random random = new Random(7);
+        ListingType[] types = ListingType.values();
+        GeoGridIndex index = new GeoGridIndex();
+        double[] lats = new double[LISTINGS];
+        double[] lons = new double[LISTINGS];
+        ListingType[] typeOf = new ListingType[LISTINGS];
+        for (int i = 0; i < LISTINGS; i++) {
+            lats[i] = 25 + random.nextDouble() * 24;
+            lons[i] = -124 + random.nextDouble() * 57;
+            typeOf[i] = types[i % types.length];
+            index.index(new Listing((long) i, "Listing " + i, null, typeOf[i], BigDecimal.ONE,
+                    "good", null, lats[i], lons[i], 1L, Instant.EPOCH));
+        }
+        double[][] queries = new double[QUERIES][];
+        for (int q = 0; q < QUERIES; q++) {
+            queries[q] = new double[]{25 + random.nextDouble() * 24, -124 + random.nextDouble() * 57};
+        }
+
+        // Warm-up for the JIT on both paths
+        long matches = 0;
+        for (double[] q : queries) {
+            matches += index.nearby(q[0], q[1], RADIUS_KM, Optional.of(ListingType.SALE), 500).size();
+            matches += fullScan(q, lats, lons, typeOf, LISTINGS / 100);
+        }
+
+        long start = System.nanoTime();
+        long gridHits = 0;
+        for (double[] q : queries) {
+            gridHits += index.nearby(q[0], q[1], RADIUS_KM, Optional.of(ListingType.SALE), 500).size();
+        }
+        double gridUs = (System.nanoTime() - start) / 1000.0 / QUERIES;
+
+        int scanned = QUERIES / 10;
+        start = System.nanoTime();
+        long scanHits = 0;
+        for (int q = 0; q < scanned; q++) {
+            scanHits += fullScan(queries[q], lats, lons, typeOf, LISTINGS);
+        }
+        double scanUs = (System.nanoTime() - start) / 1000.0 / scanned;
+
+        long gridHitsOfScanned = 0;
+        for (int q = 0; q < scanned; q++) {
+            gridHitsOfScanned += index.nearby(queries[q][0], queries[q][1], RADIUS_KM, Optional.of(ListingType.SALE), 500).size();
+        }
+
+        assertTrue(matches > 0 && gridHits > 0);
+        assertEquals(scanHits, gridHitsOfScanned);
+        assertTrue(gridUs * 20 < scanUs,
+                "Expected the grid to beat a full scan by far, got " + gridUs + " us per query vs "
+                        + scanUs + " us for a scan of " + LISTINGS + " listings");
+    }
+
+    private static int fullScan(double[] q, double[] lats, double[] lons, ListingType[] typeOf, int count) {
+        int hits = 0;
+        for (int i = 0; i < count; i++) {
+            if (typeOf[i] == ListingType.SALE && haversineKm(q[0], q[1], lats[i], lons[i]) <= RADIUS_KM) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+
+    private static double haversineKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * 6371.0088 * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+}
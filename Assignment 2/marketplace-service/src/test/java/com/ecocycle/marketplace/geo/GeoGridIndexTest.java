@@ -0,0 +1,172 @@
+package com.ecocycle.marketplace.geo;
+
+import com.ecocycle.marketplace.model.Listing;
+import com.ecocycle.marketplace.model.ListingType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for GeoGridIndex.nearby()
+ */
+@DisplayName("GeoGridIndex.nearby() Tests")
+class GeoGridIndexTest {
+
+    // downtown Raleigh; grid cells are 0.1 degrees, so 35.8 and -78.6 are cell boundaries nearby
+    private static final double LAT = 35.7796;
+    private static final double LON = -78.6382;
+
+    private GeoGridIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new GeoGridIndex();
+    }
+
+    private void put(long id, ListingType type, Double lat, Double lon) {
+        index.index(new Listing(id, "Listing " + id, null, type, BigDecimal.ONE,
+                "good", "Raleigh", lat, lon, 1L, Instant.EPOCH));
+    }
+
+    private List<Long> ids(double lat, double lon, double radiusKm, Optional<ListingType> type, int limit) {
+        return index.nearby(lat, lon, radiusKm, type, limit).stream().map(GeoGridIndex.Hit::listingId).toList();
+    }
+
+    /**
+     * TEST CASE 1: Points in the neighbouring lat, lon and diagonal cells are found and sorted by distance
+     */
+    @Test
+    @DisplayName("GEO-1: Radius query crosses cell boundaries and returns hits closest first")
+    void testNearby_AcrossCellBoundaries_ShouldFindNeighbouringCells() {
+        put(1, ListingType.SALE, 35.81, -78.6382);    // 3.38 km north, next lat cell
+        put(2, ListingType.SALE, 35.7796, -78.59);    // 4.35 km east, next lon cell
+        put(3, ListingType.SALE, 35.7796, -78.70);    // 5.57 km west, outside the radius
+        put(4, ListingType.SALE, 35.801, -78.599);    // 4.26 km north-east, diagonal cell
+        put(5, ListingType.SALE, 35.73, -78.6382);    // 5.52 km south, same cell but outside the radius
+
+        List<GeoGridIndex.Hit> hits = index.nearby(LAT, LON, 5, Optional.empty(), 10);
+
+        assertEquals(List.of(1L, 4L, 2L), hits.stream().map(GeoGridIndex.Hit::listingId).toList());
+        assertEquals(3.38, hits.get(0).distanceKm(), 0.01);
+        assertTrue(hits.stream().allMatch(h -> h.distanceKm() <= 5));
+    }
+
+    /**
+     * TEST CASE 2: A search circle spanning the antimeridian finds points on the other side
+     */
+    @Test
+    @DisplayName("GEO-2: Radius query wraps around longitude 180")
+    void testNearby_AcrossAntimeridian_ShouldWrapLongitude() {
+        put(1, ListingType.SALE, 0.0, -179.98);       // 3.34 km across the antimeridian
+        put(2, ListingType.SALE, 0.0, 179.9);         // 10 km west
+
+        assertEquals(List.of(1L), ids(0, 179.99, 5, Optional.empty(), 10));
+    }
+
+    /**
+     * TEST CASE 3: Near the pole every longitude is close, so the whole latitude band is searched
+     */
+    @Test
+    @DisplayName("GEO-3: Radius query near the pole finds points on the far side of it")
+    void testNearby_NearPole_ShouldSearchWholeBand() {
+        put(1, ListingType.SALE, 89.98, 180.0);       // 4.45 km, over the pole
+        put(2, ListingType.SALE, 89.98, 90.0);        // 3.15 km
+        put(3, ListingType.SALE, 89.8, 0.0);          // 20 km south
+
+        assertEquals(List.of(2L, 1L), ids(89.98, 0, 10, Optional.empty(), 10));
+    }
+
+    /**
+     * TEST CASE 4: The type filter only reads that type's bucket and the limit keeps the closest hits
+     */
+    @Test
+    @DisplayName("GEO-4: Type filter and limit apply to the sorted hits")
+    void testNearby_TypeAndLimit_ShouldFilterAndCap() {
+        put(1, ListingType.SALE, 35.781, LON);
+        put(2, ListingType.DONATION, 35.782, LON);
+        put(3, ListingType.DONATION, 35.79, LON);
+        put(4, ListingType.DONATION, 35.81, LON);
+
+        assertEquals(List.of(2L, 3L, 4L), ids(LAT, LON, 5, Optional.of(ListingType.DONATION), 10));
+        assertEquals(List.of(1L, 2L), ids(LAT, LON, 5, Optional.empty(), 2));
+    }
+
+    /**
+     * TEST CASE 5: Re-indexing moves a listing, and dropping its coordinates removes it
+     */
+    @Test
+    @DisplayName("GEO-5: Re-indexed listings move cells; listings without coordinates are not indexed")
+    void testIndex_MovedOrUnlocated_ShouldUpdateGrid() {
+        put(1, ListingType.SALE, LAT, LON);
+        put(1, ListingType.SALE, 35.9940, -78.8986);  // moved to Durham
+
+        assertTrue(ids(LAT, LON, 5, Optional.empty(), 10).isEmpty());
+        assertEquals(List.of(1L), ids(35.9940, -78.8986, 5, Optional.empty(), 10));
+
+        put(1, ListingType.SALE, null, null);
+        assertTrue(ids(35.9940, -78.8986, 5, Optional.empty(), 10).isEmpty());
+    }
+
+    /**
+     * TEST CASE 6: On random points, including dense strips along cell lines, the antimeridian and
+     * the poles, the grid returns exactly what a full scan with the same distance formula returns
+     */
+    @Test
+    @DisplayName("GEO-6: Grid results match a brute-force scan for random queries near every kind of boundary")
+    void testNearby_RandomQueries_ShouldMatchBruteForce() {
+        Random random = new Random(42);
+        ListingType[] types = ListingType.values();
+        List<double[]> points = new ArrayList<>();
+        for (int id = 0; id < 20_000; id++) {
+            double lat;
+            double lon;
+            switch (id % 4) {
+                case 0 -> { lat = random.nextDouble() * 180 - 90; lon = random.nextDouble() * 360 - 180; }
+                case 1 -> { lat = random.nextDouble() * 10 - 90 + (random.nextBoolean() ? 170 : 0); lon = random.nextDouble() * 360 - 180; }
+                case 2 -> { lat = random.nextDouble() * 20 - 10; lon = (random.nextDouble() * 4 - 2 + 360) % 360 - 180; }
+                default -> { lat = Math.round(random.nextDouble() * 100) / 10.0 + 30 + (random.nextDouble() - 0.5) * 1e-3;
+                             lon = Math.round(random.nextDouble() * 100) / 10.0 - 80 + (random.nextDouble() - 0.5) * 1e-3; }
+            }
+            points.add(new double[]{id, lat, lon, id % types.length});
+            put(id, types[id % types.length], lat, lon);
+        }
+
+        for (int q = 0; q < 400; q++) {
+            double[] near = points.get(random.nextInt(points.size()));
+            double lat = Math.max(-90, Math.min(90, near[1] + (random.nextDouble() - 0.5) * 0.2));
+            double lon = Math.max(-180, Math.min(180, near[2] + (random.nextDouble() - 0.5) * 0.2));
+            double radiusKm = random.nextInt(4) == 0 ? random.nextDouble() * 200 : random.nextDouble() * 15;
+            Optional<ListingType> type = random.nextBoolean() ? Optional.of(types[random.nextInt(types.length)]) : Optional.empty();
+
+            List<Long> expected = points.stream()
+                    .filter(p -> type.isEmpty() || types[(int) p[3]] == type.get())
+                    .filter(p -> haversineKm(lat, lon, p[1], p[2]) <= radiusKm)
+                    .sorted(Comparator.comparingDouble(p -> haversineKm(lat, lon, p[1], p[2])))
+                    .map(p -> (long) p[0])
+                    .toList();
+
+            assertEquals(expected, ids(lat, lon, radiusKm, type, Integer.MAX_VALUE),
+                    "lat=" + lat + " lon=" + lon + " radiusKm=" + radiusKm + " type=" + type);
+        }
+    }
+
+    // Same formula as GeoGridIndex, so points exactly on the radius are classified identically
+    private static double haversineKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * 6371.0088 * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+}
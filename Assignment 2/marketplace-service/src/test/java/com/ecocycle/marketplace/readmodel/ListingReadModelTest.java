@@ -0,0 +1,154 @@
+package com.ecocycle.marketplace.readmodel;
+
+import com.ecocycle.marketplace.dto.ListingCursor;
+import com.ecocycle.marketplace.dto.ListingDto;
+import com.ecocycle.marketplace.dto.ListingPage;
+import com.ecocycle.marketplace.model.Listing;
+import com.ecocycle.marketplace.model.ListingType;
+import com.ecocycle.marketplace.repository.ListingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Test class for ListingReadModel.page() and ListingReadModel.version()
+ */
+@DisplayName("ListingReadModel Tests")
+class ListingReadModelTest {
+
+    private static final Instant T0 = Instant.parse("2025-10-01T00:00:00Z");
+
+    private ListingReadModel readModel;
+
+    @BeforeEach
+    void setUp() {
+        readModel = new ListingReadModel(new ListingFacets(mock(ListingRepository.class)));
+    }
+
+    private static Listing listing(long id, long secondsAfterT0, ListingType type, String price) {
+        return new Listing(id, "Listing " + id, null, type, price == null ? null : new BigDecimal(price),
+                "good", "Raleigh", null, null, 1L, T0.plusSeconds(secondsAfterT0));
+    }
+
+    private static List<Long> ids(ListingPage page) {
+        return page.items().stream().map(ListingDto::id).toList();
+    }
+
+    private ListingPage page(Optional<ListingType> type, String min, String max, Optional<ListingCursor> cursor, int limit) {
+        return readModel.page(type,
+                Optional.ofNullable(min).map(BigDecimal::new),
+                Optional.ofNullable(max).map(BigDecimal::new),
+                cursor, limit);
+    }
+
+    /**
+     * TEST CASE 1: Rows indexed in any order come back newest first, ties broken by id
+     */
+    @Test
+    @DisplayName("RM-1: Pages are ordered by createdAt then id, newest first")
+    void testPage_MixedInsertOrder_ShouldBeNewestFirst() {
+        readModel.index(listing(2, 10, ListingType.SALE, "5"));
+        readModel.index(listing(1, 30, ListingType.SALE, "5"));
+        readModel.index(listing(4, 20, ListingType.SALE, "5"));
+        readModel.index(listing(3, 20, ListingType.SALE, "5"));
+
+        assertEquals(List.of(1L, 4L, 3L, 2L), ids(page(Optional.empty(), null, null, Optional.empty(), 10)));
+    }
+
+    /**
+     * TEST CASE 2: Walking the cursor visits every row exactly once
+     */
+    @Test
+    @DisplayName("RM-2: Following nextCursor walks the whole catalog without gaps or repeats")
+    void testPage_FollowCursor_ShouldVisitEveryRowOnce() {
+        for (long id = 1; id <= 25; id++) {
+            readModel.index(listing(id, id / 3, ListingType.SALE, "1"));
+        }
+
+        List<Long> seen = new ArrayList<>();
+        Optional<ListingCursor> cursor = Optional.empty();
+        do {
+            ListingPage page = page(Optional.empty(), null, null, cursor, 7);
+            seen.addAll(ids(page));
+            cursor = Optional.ofNullable(page.nextCursor()).map(ListingCursor::decode);
+        } while (cursor.isPresent());
+
+        List<Long> expected = new ArrayList<>();
+        for (long id = 25; id >= 1; id--) {
+            expected.add(id);
+        }
+        assertEquals(expected, seen);
+    }
+
+    /**
+     * TEST CASE 3: Type and price filters combine; unpriced listings never match a price bound
+     */
+    @Test
+    @DisplayName("RM-3: Type and price bounds filter rows; unpriced rows are excluded from price filters")
+    void testPage_Filters_ShouldMatchTypeAndPriceRange() {
+        readModel.index(listing(1, 1, ListingType.SALE, "9.99"));
+        readModel.index(listing(2, 2, ListingType.SALE, "10.00"));
+        readModel.index(listing(3, 3, ListingType.RENTAL, "15.00"));
+        readModel.index(listing(4, 4, ListingType.SALE, "20.005"));
+        readModel.index(listing(5, 5, ListingType.DONATION, null));
+
+        assertEquals(List.of(4L, 2L, 1L), ids(page(Optional.of(ListingType.SALE), null, null, Optional.empty(), 10)));
+        assertEquals(List.of(3L, 2L), ids(page(Optional.empty(), "10", "15", Optional.empty(), 10)));
+        assertEquals(List.of(4L), ids(page(Optional.of(ListingType.SALE), "20.01", null, Optional.empty(), 10)));
+        assertEquals(List.of(5L, 4L, 3L, 2L, 1L), ids(page(Optional.empty(), null, null, Optional.empty(), 10)));
+    }
+
+    /**
+     * TEST CASE 4: Re-indexing a listing replaces its row instead of duplicating it
+     */
+    @Test
+    @DisplayName("RM-4: Indexing an existing id updates it in place")
+    void testIndex_SameIdTwice_ShouldUpsert() {
+        readModel.index(listing(1, 1, ListingType.SALE, "5"));
+        readModel.index(listing(2, 2, ListingType.SALE, "5"));
+        readModel.index(listing(1, 3, ListingType.RENTAL, "7"));
+
+        ListingPage page = page(Optional.empty(), null, null, Optional.empty(), 10);
+        assertEquals(List.of(1L, 2L), ids(page));
+        assertEquals(ListingType.RENTAL, page.items().get(0).type());
+    }
+
+    /**
+     * TEST CASE 5: A stored price too large for cents-in-a-long is clamped instead of failing the rebuild
+     */
+    @Test
+    @DisplayName("RM-5: An out-of-range stored price does not throw and still sorts above every bound")
+    void testIndex_HugePrice_ShouldNotThrow() {
+        assertDoesNotThrow(() -> readModel.index(listing(1, 1, ListingType.SALE, "1e30")));
+        readModel.index(listing(2, 2, ListingType.SALE, "5"));
+
+        assertEquals(List.of(1L), ids(page(Optional.empty(), "1000000", null, Optional.empty(), 10)));
+        assertEquals(List.of(2L), ids(page(Optional.empty(), null, "1000000", Optional.empty(), 10)));
+    }
+
+    /**
+     * TEST CASE 6: A listing's version changes only when that listing is re-indexed
+     */
+    @Test
+    @DisplayName("RM-6: Row version changes on re-index of that listing only; unknown ids have none")
+    void testVersion_ShouldTrackSingleListing() {
+        readModel.index(listing(1, 1, ListingType.SALE, "5"));
+        String v1 = readModel.version(1).orElseThrow();
+
+        readModel.index(listing(2, 2, ListingType.SALE, "5"));
+        assertEquals(v1, readModel.version(1).orElseThrow());
+
+        readModel.index(listing(1, 1, ListingType.SALE, "6"));
+        assertNotEquals(v1, readModel.version(1).orElseThrow());
+        assertTrue(readModel.version(99).isEmpty());
+    }
+}
@@ -0,0 +1,151 @@
+package com.ecocycle.marketplace.search;
+
+import com.ecocycle.marketplace.model.Listing;
+import com.ecocycle.marketplace.model.ListingType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for ListingSearchIndex.search()
+ */
+@DisplayName("ListingSearchIndex.search() Tests")
+class ListingSearchIndexTest {
+
+    private ListingSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ListingSearchIndex();
+    }
+
+    private static Listing listing(long id, String title, String description) {
+        return new Listing(id, title, description, ListingType.SALE, BigDecimal.ONE,
+                "good", "Raleigh", null, null, 1L, Instant.EPOCH);
+    }
+
+    private List<Long> ids(String query, int limit) {
+        return index.search(query, limit).stream().map(ListingSearchIndex.Hit::listingId).toList();
+    }
+
+    /**
+     * TEST CASE 1: A term in the title weighs more than the same term in the description
+     */
+    @Test
+    @DisplayName("SRCH-1: Title matches rank above description-only matches")
+    void testSearch_TitleVsDescription_ShouldRankTitleFirst() {
+        index.index(listing(1, "Reading lamp", "Bright oak desk light"));
+        index.index(listing(2, "Oak desk", "Solid wood, light scratches"));
+
+        assertEquals(List.of(2L, 1L), ids("desk", 10));
+    }
+
+    /**
+     * TEST CASE 2: A rare query term contributes more than a common one
+     */
+    @Test
+    @DisplayName("SRCH-2: Listings matching the rarer query term rank first")
+    void testSearch_RareAndCommonTerms_ShouldFavourRareTerm() {
+        index.index(listing(1, "Chair", null));
+        index.index(listing(2, "Walnut chair", null));
+        index.index(listing(3, "Chair", null));
+        index.index(listing(4, "Walnut", null));
+        index.index(listing(5, "Chair", null));
+
+        List<Long> hits = ids("walnut chair", 10);
+
+        assertEquals(List.of(2L, 4L), hits.subList(0, 2));
+        assertEquals(5, hits.size());
+    }
+
+    /**
+     * TEST CASE 3: Query text goes through the same tokenizer as the listings
+     */
+    @Test
+    @DisplayName("SRCH-3: Case, accents, stop words and plurals are normalized on both sides")
+    void testSearch_Normalization_ShouldMatchAcrossForms() {
+        index.index(listing(1, "Café tables", null));
+
+        assertEquals(List.of(1L), ids("the CAFE Table", 10));
+        assertTrue(ids("the of and", 10).isEmpty());
+        assertTrue(ids("sofa", 10).isEmpty());
+    }
+
+    /**
+     * TEST CASE 4: Only the best hits up to the limit are returned, best first
+     */
+    @Test
+    @DisplayName("SRCH-4: Results are capped at the limit and sorted by descending score")
+    void testSearch_Limit_ShouldKeepBestHitsInOrder() {
+        index.index(listing(1, "Bike", "A bike"));
+        index.index(listing(2, "Bike", "Bike, bike, bike parts"));
+        index.index(listing(3, "Helmet", "Fits any bike"));
+        index.index(listing(4, "Bike", "Kids bike, bike seat and bike bell"));
+
+        List<ListingSearchIndex.Hit> hits = index.search("bike", 2);
+
+        assertEquals(2, hits.size());
+        assertTrue(hits.get(0).score() >= hits.get(1).score());
+        assertFalse(hits.stream().anyMatch(h -> h.listingId() == 3L));
+    }
+
+    /**
+     * TEST CASE 5: An edited listing is found by its new text only, once
+     */
+    @Test
+    @DisplayName("SRCH-5: Re-indexing replaces the old text without duplicate hits")
+    void testSearch_Reindexed_ShouldMatchNewTextOnly() {
+        index.index(listing(1, "Blue sofa", null));
+        index.index(listing(1, "Green sofa", null));
+
+        assertTrue(ids("blue", 10).isEmpty());
+        assertEquals(List.of(1L), ids("green sofa", 10));
+    }
+
+    /**
+     * TEST CASE 6: Retired versions of a listing do not count towards document frequency
+     */
+    @Test
+    @DisplayName("SRCH-6: Scores after repeated edits equal those of a freshly built index")
+    void testSearch_ManyEdits_ShouldScoreLikeFreshIndex() {
+        for (int edit = 0; edit < 5; edit++) {
+            index.index(listing(1, "Desk lamp", "Edit " + edit));
+        }
+        index.index(listing(2, "Floor lamp", null));
+        index.index(listing(3, "Bookshelf", null));
+
+        ListingSearchIndex fresh = new ListingSearchIndex();
+        fresh.index(listing(1, "Desk lamp", "Edit 4"));
+        fresh.index(listing(2, "Floor lamp", null));
+        fresh.index(listing(3, "Bookshelf", null));
+
+        List<ListingSearchIndex.Hit> hits = index.search("lamp", 10);
+        List<ListingSearchIndex.Hit> expected = fresh.search("lamp", 10);
+        assertEquals(expected.size(), hits.size());
+        for (int i = 0; i < hits.size(); i++) {
+            assertEquals(expected.get(i).listingId(), hits.get(i).listingId());
+            assertEquals(expected.get(i).score(), hits.get(i).score(), 1e-9);
+            assertTrue(hits.get(i).score() > 0);
+        }
+    }
+
+    /**
+     * TEST CASE 7: clear() forgets every listing
+     */
+    @Test
+    @DisplayName("SRCH-7: Cleared index returns no hits and can be rebuilt")
+    void testSearch_AfterClear_ShouldStartEmpty() {
+        index.index(listing(1, "Desk", null));
+        index.clear();
+
+        assertTrue(ids("desk", 10).isEmpty());
+        index.index(listing(1, "Desk", null));
+        assertEquals(List.of(1L), ids("desk", 10));
+    }
+}
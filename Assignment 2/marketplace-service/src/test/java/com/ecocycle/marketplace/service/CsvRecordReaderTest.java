@@ -0,0 +1,91 @@
+package com.ecocycle.marketplace.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for CsvRecordReader.next()
+ */
+@DisplayName("CsvRecordReader.next() Tests")
+class CsvRecordReaderTest {
+
+    private static final int MAX_RECORD_LENGTH = 64;
+
+    private static List<List<String>> readAll(String csv) throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader(csv), MAX_RECORD_LENGTH);
+        List<List<String>> records = new ArrayList<>();
+        List<String> fields;
+        while ((fields = reader.next()) != null) {
+            records.add(fields);
+        }
+        return records;
+    }
+
+    /**
+     * TEST CASE 1: Plain comma-separated records, with or without a trailing newline
+     */
+    @Test
+    @DisplayName("CSV-1: Unquoted fields are split on commas and records on newlines")
+    void testNext_PlainRecords_ShouldSplitFields() throws IOException {
+        assertEquals(List.of(List.of("a", "b", "c"), List.of("1", "", "3")), readAll("a,b,c\n1,,3"));
+        assertEquals(List.of(List.of("a", "b")), readAll("a,b\n"));
+    }
+
+    /**
+     * TEST CASE 2: Quoted fields keep commas, doubled quotes and line breaks
+     */
+    @Test
+    @DisplayName("CSV-2: Quoted fields may contain commas, escaped quotes and newlines")
+    void testNext_QuotedFields_ShouldKeepSpecialCharacters() throws IOException {
+        List<List<String>> records = readAll("\"Desk, oak\",\"a \"\"big\"\" one\",\"line1\nline2\"\nnext,row\n");
+
+        assertEquals(List.of(
+                List.of("Desk, oak", "a \"big\" one", "line1\nline2"),
+                List.of("next", "row")
+        ), records);
+    }
+
+    /**
+     * TEST CASE 3: CRLF line endings end a record just like LF
+     */
+    @Test
+    @DisplayName("CSV-3: CRLF and lone CR line endings are accepted")
+    void testNext_CrLf_ShouldEndRecords() throws IOException {
+        assertEquals(List.of(List.of("a", "b"), List.of("c", "d"), List.of("e")), readAll("a,b\r\nc,d\re\r\n"));
+    }
+
+    /**
+     * TEST CASE 4: A quote that is never closed is reported as malformed input, not as an I/O failure
+     */
+    @Test
+    @DisplayName("CSV-4: Unterminated quote throws MalformedRecordException and leaves the reader at end of input")
+    void testNext_UnterminatedQuote_ShouldThrowMalformedRecord() throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader("ok,row\n\"never closed,x\nmore"), MAX_RECORD_LENGTH);
+
+        assertEquals(List.of("ok", "row"), reader.next());
+        assertThrows(CsvRecordReader.MalformedRecordException.class, reader::next);
+        assertNull(reader.next());
+    }
+
+    /**
+     * TEST CASE 5: A record over the length limit is rejected after reading just past the limit
+     */
+    @Test
+    @DisplayName("CSV-5: Over-long records, quoted or made of bare commas, throw MalformedRecordException")
+    void testNext_OverLongRecord_ShouldThrowMalformedRecord() throws IOException {
+        String longQuoted = "\"" + "x".repeat(10_000);
+        String manyCommas = ",".repeat(10_000) + "\n";
+        String exactlyAtLimit = "y".repeat(MAX_RECORD_LENGTH - 1) + "\n";
+
+        assertThrows(CsvRecordReader.MalformedRecordException.class, () -> readAll(longQuoted));
+        assertThrows(CsvRecordReader.MalformedRecordException.class, () -> readAll(manyCommas));
+        assertEquals(List.of(List.of("y".repeat(MAX_RECORD_LENGTH - 1))), readAll(exactlyAtLimit));
+    }
+}
@@ -0,0 +1,217 @@
+package com.ecocycle.marketplace.service;
+
+import com.ecocycle.marketplace.dto.CreateListingRequest;
+import com.ecocycle.marketplace.dto.ListingImportResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for ListingImportService.importNdjson() and ListingImportService.importCsv()
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ListingImportService Tests")
+class ListingImportServiceTest {
+
+    private static final Long OWNER_ID = 7L;
+    private static final int BATCH_SIZE = 3;
+    private static final int MAX_RECORD_LENGTH = 200;
+
+    @Mock
+    private ListingService listingService;
+
+    private ValidatorFactory validatorFactory;
+    private ListingImportService importService;
+    private final List<String> savedTitles = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        importService = new ListingImportService(listingService, new ObjectMapper(),
+                validatorFactory.getValidator(), BATCH_SIZE, MAX_RECORD_LENGTH);
+
+        // A batch containing a "reject me" title rolls back as a whole, like a database constraint violation
+        lenient().when(listingService.createBatch(anyList(), eq(OWNER_ID))).thenAnswer(invocation -> {
+            List<CreateListingRequest> batch = invocation.getArgument(0);
+            if (batch.stream().anyMatch(r -> r.title().equals("reject me"))) {
+                throw new IllegalStateException("value too long");
+            }
+            batch.forEach(r -> savedTitles.add(r.title()));
+            return batch.size();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        validatorFactory.close();
+    }
+
+    private static InputStream body(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String ndjsonRow(String title) {
+        return "{\"title\":\"" + title + "\",\"type\":\"SALE\",\"price\":5}\n";
+    }
+
+    /**
+     * TEST CASE 1: Valid rows are saved in batches and counted
+     */
+    @Test
+    @DisplayName("IMP-1: Valid NDJSON rows are saved in batches of the configured size")
+    void testImportNdjson_ValidRows_ShouldSaveInBatches() throws IOException {
+        String ndjson = ndjsonRow("a") + ndjsonRow("b") + "\n" + ndjsonRow("c") + ndjsonRow("d");
+
+        ListingImportResult result = importService.importNdjson(body(ndjson), OWNER_ID);
+
+        assertEquals(new ListingImportResult(4, 4, 0, List.of()), result);
+        assertEquals(List.of("a", "b", "c", "d"), savedTitles);
+        verify(listingService, times(2)).createBatch(anyList(), eq(OWNER_ID));
+    }
+
+    /**
+     * TEST CASE 2: Malformed JSON, a bare null and invalid rows are reported per row and the import continues
+     */
+    @Test
+    @DisplayName("IMP-2: Bad NDJSON rows are reported individually without aborting the import")
+    void testImportNdjson_BadRows_ShouldBeReportedPerRow() throws IOException {
+        String ndjson = ndjsonRow("a")
+                + "{not json\n"
+                + "null\n"
+                + "{\"title\":\"\",\"type\":\"SALE\"}\n"
+                + "{\"title\":\"pricey\",\"type\":\"SALE\",\"price\":1e30}\n"
+                + ndjsonRow("b");
+
+        ListingImportResult result = importService.importNdjson(body(ndjson), OWNER_ID);
+
+        assertEquals(6, result.received());
+        assertEquals(2, result.created());
+        assertEquals(4, result.failed());
+        assertEquals(List.of(2L, 3L, 4L, 5L), result.errors().stream().map(ListingImportResult.RowError::row).toList());
+        assertTrue(result.errors().get(0).message().startsWith("Malformed JSON"));
+        assertEquals("Expected a JSON object", result.errors().get(1).message());
+        assertTrue(result.errors().get(2).message().startsWith("title"));
+        assertTrue(result.errors().get(3).message().startsWith("price"));
+        assertEquals(List.of("a", "b"), savedTitles);
+    }
+
+    /**
+     * TEST CASE 3: A batch the database rejects is retried row by row so only the bad row fails
+     */
+    @Test
+    @DisplayName("IMP-3: Only the row the database rejects is reported when its batch fails")
+    void testImportNdjson_BatchRejected_ShouldFallBackToSingleRows() throws IOException {
+        String ndjson = ndjsonRow("a") + ndjsonRow("reject me") + ndjsonRow("c") + ndjsonRow("d");
+
+        ListingImportResult result = importService.importNdjson(body(ndjson), OWNER_ID);
+
+        assertEquals(4, result.received());
+        assertEquals(3, result.created());
+        assertEquals(1, result.failed());
+        assertEquals(2L, result.errors().get(0).row());
+        assertTrue(result.errors().get(0).message().contains("value too long"));
+        assertEquals(List.of("a", "c", "d"), savedTitles);
+    }
+
+    /**
+     * TEST CASE 4: CSV columns are matched by header name and bad values are reported per row
+     */
+    @Test
+    @DisplayName("IMP-4: CSV rows are mapped by header and bad values reported per row")
+    void testImportCsv_HeaderMapping_ShouldImportAndReportRows() throws IOException {
+        String csv = "Price,TYPE,title\n"
+                + "12.50,sale,\"Desk, oak\"\n"
+                + "abc,SALE,Chair\n"
+                + "1,GIFT,Lamp\n"
+                + "\n"
+                + "3,donation,Books\n";
+
+        ListingImportResult result = importService.importCsv(body(csv), OWNER_ID);
+
+        assertEquals(4, result.received());
+        assertEquals(2, result.created());
+        assertEquals(List.of(2L, 3L), result.errors().stream().map(ListingImportResult.RowError::row).toList());
+        assertEquals(List.of("Desk, oak", "Books"), savedTitles);
+    }
+
+    /**
+     * TEST CASE 5: An unterminated quote fails that row but keeps everything committed before it
+     */
+    @Test
+    @DisplayName("IMP-5: Unterminated CSV quote is reported as a row error and earlier rows are kept")
+    void testImportCsv_UnterminatedQuote_ShouldReportRowAndKeepEarlierRows() throws IOException {
+        String csv = "title,type\n"
+                + "a,SALE\n"
+                + "b,SALE\n"
+                + "c,SALE\n"
+                + "d,SALE\n"
+                + "\"never closed,SALE\n"
+                + "e,SALE\n";
+
+        ListingImportResult result = importService.importCsv(body(csv), OWNER_ID);
+
+        assertEquals(5, result.received());
+        assertEquals(4, result.created());
+        assertEquals(1, result.failed());
+        assertEquals(5L, result.errors().get(0).row());
+        assertTrue(result.errors().get(0).message().startsWith("Malformed CSV"));
+        assertEquals(List.of("a", "b", "c", "d"), savedTitles);
+    }
+
+    /**
+     * TEST CASE 6: An over-long NDJSON line is reported without being buffered and the next lines still import
+     */
+    @Test
+    @DisplayName("IMP-6: NDJSON line over the length limit is a row error and the import continues")
+    void testImportNdjson_OverLongLine_ShouldReportRowAndContinue() throws IOException {
+        String ndjson = ndjsonRow("a")
+                + "{\"title\":\"" + "x".repeat(100_000) + "\",\"type\":\"SALE\"}\r\n"
+                + ndjsonRow("b");
+
+        ListingImportResult result = importService.importNdjson(body(ndjson), OWNER_ID);
+
+        assertEquals(3, result.received());
+        assertEquals(2, result.created());
+        assertEquals(List.of(new ListingImportResult.RowError(2, "Line longer than 200 characters")), result.errors());
+        assertEquals(List.of("a", "b"), savedTitles);
+    }
+
+    /**
+     * TEST CASE 7: An over-long CSV record ends the import with a row error, keeping earlier rows
+     */
+    @Test
+    @DisplayName("IMP-7: CSV record over the length limit is reported as the last row")
+    void testImportCsv_OverLongRecord_ShouldReportRowAndStop() throws IOException {
+        String csv = "title,type\n"
+                + "a,SALE\n"
+                + "\"" + "x".repeat(100_000) + "\",SALE\n"
+                + "b,SALE\n";
+
+        ListingImportResult result = importService.importCsv(body(csv), OWNER_ID);
+
+        assertEquals(2, result.received());
+        assertEquals(1, result.created());
+        assertEquals(List.of(new ListingImportResult.RowError(2, "Malformed CSV: Record longer than 200 characters")),
+                result.errors());
+        assertEquals(List.of("a"), savedTitles);
+    }
+}
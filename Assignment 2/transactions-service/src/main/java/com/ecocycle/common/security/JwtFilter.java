@@ -20,8 +20,9 @@ public class JwtFilter extends OncePerRequestFilter {
     private final JwtUtil jwtUtil;
 
     public JwtFilter(@Value("${jwt.secret}") String secret,
-                     @Value("${jwt.expiration}") long expiration) {
-        this.jwtUtil = new JwtUtil(secret, expiration);
+                     @Value("${jwt.expiration}") long expiration,
+                     @Value("${jwt.verified-cache-size:10000}") long verifiedCacheSize) {
+        this.jwtUtil = new JwtUtil(secret, expiration, verifiedCacheSize);
     }
 
     @Override
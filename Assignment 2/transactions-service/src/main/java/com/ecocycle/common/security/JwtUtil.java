@@ -1,20 +1,48 @@
 package com.ecocycle.common.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 
 public class JwtUtil {
 
+    // Refactoring: Extract Constant - Removes Magic Number smell
+    private static final long DEFAULT_VERIFIED_CACHE_SIZE = 10_000;
+
     private final SecretKey key;
     private final long expiration;
+    private final JwtParser parser;
+    private final Cache<String, VerifiedToken> verified;
 
     public JwtUtil(String secret, long expiration) {
+        this(secret, expiration, DEFAULT_VERIFIED_CACHE_SIZE);
+    }
+
+    /**
+     * @param verifiedCacheSize How many verified tokens to remember, each until its own expiry
+     */
+    public JwtUtil(String secret, long expiration, long verifiedCacheSize) {
         // ✅ generate HMAC-SHA key from string
         this.key = Keys.hmacShaKeyFor(secret.getBytes());
         this.expiration = expiration;
+        // The parser is immutable and thread-safe, so one instance serves every request
+        this.parser = Jwts.parser().verifyWith(key).build();
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheSize)
+                .expireAfter(new UntilTokenExpiry())
+                .build();
     }
 
     public String generateToken(Long userId) {
@@ -47,13 +75,62 @@ public class JwtUtil {
         return new Date(System.currentTimeMillis() + expiration);
     }
 
+    /**
+     * A token verified before is answered from the cache without re-checking its signature.
+     * Cache entries end when their token expires, after which the token is parsed again and rejected.
+     */
     public Long validateAndExtractUserId(String token) {
-        var claims = Jwts.parser()
-                .verifyWith(key)   // ✅ now key is SecretKey
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        String digest = digest(token);
+        VerifiedToken hit = verified.getIfPresent(digest);
+        if (hit != null && hit.expiresAtMillis() > System.currentTimeMillis()) {
+            return hit.userId();
+        }
+
+        Claims claims = parser.parseSignedClaims(token).getPayload();
+        Long userId = Long.valueOf(claims.getSubject());
+        if (claims.getExpiration() != null) {
+            verified.put(digest, new VerifiedToken(userId, claims.getExpiration().getTime()));
+        }
+        return userId;
+    }
+
+    /**
+     * SHA-256 of the token, so the cache keeps fixed-size keys instead of the tokens themselves.
+     * Refactoring: Extract Method - Reduces Long Statement smell.
+     *
+     * @param token The compact JWT
+     * @return The Base64-encoded digest
+     */
+    static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private record VerifiedToken(Long userId, long expiresAtMillis) {}
+
+    /**
+     * Expires each cache entry at the moment its token expires.
+     */
+    private static final class UntilTokenExpiry implements Expiry<String, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(String digest, VerifiedToken token, long currentTime) {
+            long remainingMillis = Math.max(0, token.expiresAtMillis() - System.currentTimeMillis());
+            return TimeUnit.MILLISECONDS.toNanos(remainingMillis);
+        }
+
+        @Override
+        public long expireAfterUpdate(String digest, VerifiedToken token, long currentTime, long currentDuration) {
+            return expireAfterCreate(digest, token, currentTime);
+        }
 
-        return Long.valueOf(claims.getSubject());
+        @Override
+        public long expireAfterRead(String digest, VerifiedToken token, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
 }
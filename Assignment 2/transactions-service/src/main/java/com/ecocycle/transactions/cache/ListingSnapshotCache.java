@@ -0,0 +1,110 @@
+package com.ecocycle.transactions.cache;
+
+import com.ecocycle.transactions.client.ListingDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Local stale-while-revalidate cache of listing snapshots fetched from marketplace-service.
+ * <p>
+ * An entry younger than {@code fresh-for} is served as is. An older entry is still served
+ * immediately, and a single background refresh is started for it; if that refresh fails
+ * (e.g. marketplace-service is down) the old snapshot stays in place. Entries are dropped
+ * {@code serve-stale-for} after their last successful fetch, which bounds how long an
+ * outage can be papered over.
+ * <p>
+ * Meters: {@code listing.snapshot.requests{result=fresh|stale|miss}},
+ * {@code listing.snapshot.staleness} (age of stale snapshots served),
+ * {@code listing.snapshot.refresh.failures}, plus the Caffeine {@code cache.*} meters
+ * tagged {@code cache=listing-snapshots}.
+ */
+@Slf4j
+@Component
+public class ListingSnapshotCache {
+
+    private record Snapshot(ListingDto listing, long fetchedAtNanos) {}
+
+    private final Cache<Long, Snapshot> cache;
+    private final long freshForNanos;
+    private final Set<Long> refreshing = ConcurrentHashMap.newKeySet();
+
+    private final Counter fresh;
+    private final Counter stale;
+    private final Counter miss;
+    private final Counter refreshFailures;
+    private final Timer staleness;
+
+    public ListingSnapshotCache(@Value("${marketplace.listing-cache.max-size:10000}") long maxSize,
+                                @Value("${marketplace.listing-cache.fresh-for:30s}") Duration freshFor,
+                                @Value("${marketplace.listing-cache.serve-stale-for:10m}") Duration serveStaleFor,
+                                MeterRegistry registry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(serveStaleFor)
+                .recordStats()
+                .build();
+        this.freshForNanos = freshFor.toNanos();
+        CaffeineCacheMetrics.monitor(registry, cache, "listing-snapshots");
+
+        this.fresh = registry.counter("listing.snapshot.requests", "result", "fresh");
+        this.stale = registry.counter("listing.snapshot.requests", "result", "stale");
+        this.miss = registry.counter("listing.snapshot.requests", "result", "miss");
+        this.refreshFailures = registry.counter("listing.snapshot.refresh.failures");
+        this.staleness = registry.timer("listing.snapshot.staleness");
+    }
+
+    /**
+     * Returns the cached snapshot when there is one, otherwise the result of {@code fetcher}.
+     *
+     * @param fetcher remote lookup; only subscribed on a miss or for a background refresh
+     */
+    public Mono<ListingDto> get(Long id, Function<Long, Mono<ListingDto>> fetcher) {
+        Snapshot snapshot = cache.getIfPresent(id);
+        if (snapshot == null) {
+            miss.increment();
+            return fetcher.apply(id).doOnNext(listing -> put(id, listing));
+        }
+
+        long age = System.nanoTime() - snapshot.fetchedAtNanos();
+        if (age <= freshForNanos) {
+            fresh.increment();
+        } else {
+            stale.increment();
+            staleness.record(Duration.ofNanos(age));
+            refreshInBackground(id, fetcher);
+        }
+        return Mono.just(snapshot.listing());
+    }
+
+    /**
+     * Starts at most one refresh per key; a failed refresh keeps the current snapshot.
+     */
+    private void refreshInBackground(Long id, Function<Long, Mono<ListingDto>> fetcher) {
+        if (!refreshing.add(id)) {
+            return;
+        }
+        fetcher.apply(id)
+                .doFinally(signal -> refreshing.remove(id))
+                .subscribe(listing -> put(id, listing), e -> {
+                    refreshFailures.increment();
+                    log.debug("Refresh of listing {} failed, serving last known snapshot", id, e);
+                });
+    }
+
+    private void put(Long id, ListingDto listing) {
+        cache.put(id, new Snapshot(listing, System.nanoTime()));
+    }
+}
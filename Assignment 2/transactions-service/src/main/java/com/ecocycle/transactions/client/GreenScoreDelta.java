@@ -0,0 +1,3 @@
+package com.ecocycle.transactions.client;
+
+public record GreenScoreDelta(Long userId, int delta) {}
@@ -0,0 +1,6 @@
+package com.ecocycle.transactions.client;
+
+import java.util.List;
+import java.util.Map;
+
+public record ListingBatchDto(Map<Long, ListingDto> listings, List<Long> notFound) {}
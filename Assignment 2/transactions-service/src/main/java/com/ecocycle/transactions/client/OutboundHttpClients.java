@@ -0,0 +1,80 @@
+package com.ecocycle.transactions.client;
+
+import io.netty.channel.ChannelOption;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+/**
+ * Outbound HTTP layer shared by the clients of other services.
+ * <p>
+ * All WebClients created here draw from one sized, keep-alive Reactor Netty connection
+ * pool. Idle connections are closed before the server side would drop them, and pool
+ * exhaustion fails fast after {@code pending-acquire-timeout} instead of queueing without
+ * bound. Responses are requested compressed; HTTP/2 (h2c, falling back to HTTP/1.1) can
+ * be switched on per deployment.
+ */
+@Component
+public class OutboundHttpClients {
+
+    private final ConnectionProvider pool;
+    private final boolean http2;
+    private final boolean compression;
+    private final int maxInMemorySize;
+
+    public OutboundHttpClients(@Value("${outbound.http.pool.max-connections:128}") int maxConnections,
+                               @Value("${outbound.http.pool.pending-acquire-max-count:1000}") int pendingAcquireMaxCount,
+                               @Value("${outbound.http.pool.pending-acquire-timeout:5s}") Duration pendingAcquireTimeout,
+                               @Value("${outbound.http.pool.max-idle-time:20s}") Duration maxIdleTime,
+                               @Value("${outbound.http.pool.max-life-time:5m}") Duration maxLifeTime,
+                               @Value("${outbound.http.http2:false}") boolean http2,
+                               @Value("${outbound.http.compression:true}") boolean compression,
+                               @Value("${outbound.http.max-in-memory-size:1MB}") DataSize maxInMemorySize) {
+        this.pool = ConnectionProvider.builder("outbound")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                .pendingAcquireTimeout(pendingAcquireTimeout)
+                .maxIdleTime(maxIdleTime)
+                .maxLifeTime(maxLifeTime)
+                .evictInBackground(maxIdleTime)
+                .metrics(true)
+                .build();
+        this.http2 = http2;
+        this.compression = compression;
+        this.maxInMemorySize = (int) maxInMemorySize.toBytes();
+    }
+
+    /**
+     * Builds a WebClient on the shared pool whose connections fail after
+     * {@code connectTimeout} and whose requests fail when no response has arrived
+     * within {@code responseTimeout}.
+     */
+    public WebClient create(Duration connectTimeout, Duration responseTimeout) {
+        HttpClient httpClient = HttpClient.create(pool)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .keepAlive(true)
+                .compress(compression)
+                .responseTimeout(responseTimeout);
+        if (http2) {
+            httpClient = httpClient.protocol(HttpProtocol.H2C, HttpProtocol.HTTP11);
+        }
+        return WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(maxInMemorySize))
+                .build();
+    }
+
+    @PreDestroy
+    public void close() {
+        pool.dispose();
+    }
+}
@@ -0,0 +1,47 @@
+package com.ecocycle.transactions.client;
+
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls for the same key: while a call for a key is in flight,
+ * further callers subscribe to it instead of starting their own, and all of them
+ * receive the same value or error. Once the call finishes the key is released, so the
+ * next caller triggers a fresh call (results are not cached here).
+ * <p>
+ * Only use this for idempotent reads; coalescing writes would silently drop all but one.
+ *
+ * @param <K> call key, e.g. a listing id
+ * @param <V> result type
+ */
+public class SingleFlight<K, V> {
+
+    private final Map<K, Mono<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * @param call the upstream call; only invoked by the first caller for {@code key}
+     */
+    public Mono<V> execute(K key, Supplier<Mono<V>> call) {
+        return Mono.defer(() -> inFlight.computeIfAbsent(key, k -> share(k, call)));
+    }
+
+    /**
+     * Number of keys with a call currently in flight.
+     */
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private Mono<V> share(K key, Supplier<Mono<V>> call) {
+        AtomicReference<Mono<V>> self = new AtomicReference<>();
+        Mono<V> shared = Mono.defer(call)
+                .doFinally(signal -> inFlight.remove(key, self.get()))
+                .cache();
+        self.set(shared);
+        return shared;
+    }
+}
@@ -1,37 +1,78 @@
 package com.ecocycle.transactions.client;
 
+import com.ecocycle.transactions.exception.GreenScoreUpdateException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Client for users-service.
+ */
 @Component
 public class UsersClient {
 
+    // Lets users-service recognise a replayed batch and skip it
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    // Name of the circuit breaker and bulkhead configured under resilience4j.*.instances
+    private static final String RESILIENCE_INSTANCE = "users";
+
     private final WebClient webClient;
-    private final String baseUrl;
+    private final URI greenScoreBatchUri;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
 
-    public UsersClient(@Value("${users.base-url:http://localhost:8083}") String baseUrl) {
-        this.webClient = WebClient.builder().build();
-        this.baseUrl = baseUrl;
+    public UsersClient(@Value("${users.base-url:http://localhost:8083}") String baseUrl,
+                       @Value("${users.http.connect-timeout:2s}") Duration connectTimeout,
+                       @Value("${users.http.response-timeout:5s}") Duration responseTimeout,
+                       OutboundHttpClients http,
+                       CircuitBreakerRegistry circuitBreakers,
+                       BulkheadRegistry bulkheads) {
+        this.webClient = http.create(connectTimeout, responseTimeout);
+        this.greenScoreBatchUri = buildGreenScoreBatchUri(baseUrl);
+        this.circuitBreaker = circuitBreakers.circuitBreaker(RESILIENCE_INSTANCE);
+        this.bulkhead = bulkheads.bulkhead(RESILIENCE_INSTANCE);
     }
 
-    public void incrementGreenScore(Long userId, int delta) {
-        webClient.put()
-                .uri(buildGreenScoreUri(userId, delta))
+    /**
+     * Applies a batch of green-score deltas in one call. Sending the same {@code batchId}
+     * again is a no-op on the users-service side.
+     *
+     * @param batchId The idempotency key of the batch
+     * @param deltas The per-user deltas
+     * @return A Mono that completes once users-service has applied (or already had applied) the batch
+     */
+    public Mono<Void> applyGreenScoreBatch(String batchId, List<GreenScoreDelta> deltas) {
+        return webClient.put()
+                .uri(greenScoreBatchUri)
+                .header(IDEMPOTENCY_KEY_HEADER, batchId)
+                .bodyValue(deltas)
                 .retrieve()
                 .bodyToMono(Void.class)
-                .block();
+                .transformDeferred(BulkheadOperator.of(bulkhead))
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                .onErrorMap(e -> new GreenScoreUpdateException("Failed to update user scores", e));
     }
 
     /**
-     * Builds the URI template for incrementing green score.
+     * Builds the URI for the batch green score endpoint; it has no variables, so it is built once.
      * Refactoring: Extract Method - Reduces Long Statement smell.
-     * 
-     * @param userId The user ID
-     * @param delta The score increment value
-     * @return The URI template string
+     *
+     * @param baseUrl The users-service base URL
+     * @return The endpoint URI
      */
-    private String buildGreenScoreUri(Long userId, int delta) {
-        return baseUrl + "/users/{id}/greenscore?delta={delta}";
+    private static URI buildGreenScoreBatchUri(String baseUrl) {
+        return URI.create(baseUrl + "/users/greenscore");
     }
 }
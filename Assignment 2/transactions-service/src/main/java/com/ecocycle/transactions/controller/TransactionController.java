@@ -1,13 +1,20 @@
 package com.ecocycle.transactions.controller;
 
 import com.ecocycle.transactions.dto.*;
+import com.ecocycle.transactions.model.TransactionStatus;
 import com.ecocycle.transactions.service.TransactionService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/transactions")
@@ -19,20 +26,26 @@ public class TransactionController {
 
     private final TransactionService service;
 
+    /**
+     * Returns a Mono so Spring MVC completes the response asynchronously; the Tomcat
+     * thread is released while marketplace-service is being called.
+     */
     @PostMapping("/offer")
-    public ResponseEntity<TransactionDto> offer(@Valid @RequestBody CreateOfferRequest req,
+    public Mono<ResponseEntity<TransactionDto>> offer(@Valid @RequestBody CreateOfferRequest req,
                                                 HttpServletRequest request) {
         Long buyerId = (Long) request.getAttribute("userId");
         String token = extractTokenFromRequest(request);
-        return ResponseEntity.status(HttpStatus.CREATED).body(service.createOffer(req, buyerId, token));
+        return service.createOffer(req, buyerId, token)
+                .map(dto -> ResponseEntity.status(HttpStatus.CREATED).body(dto));
     }
 
 
     @PostMapping("/donate")
-    public ResponseEntity<TransactionDto> donate(@Valid @RequestBody ClaimDonationRequest req, HttpServletRequest request) {
+    public Mono<ResponseEntity<TransactionDto>> donate(@Valid @RequestBody ClaimDonationRequest req, HttpServletRequest request) {
         Long buyerId = (Long) request.getAttribute("userId");
         String token = extractTokenFromRequest(request);
-        return ResponseEntity.status(HttpStatus.CREATED).body(service.claimDonation(req, buyerId, token));
+        return service.claimDonation(req, buyerId, token)
+                .map(dto -> ResponseEntity.status(HttpStatus.CREATED).body(dto));
     }
 
     /**
@@ -47,13 +60,47 @@ public class TransactionController {
         return authHeader != null ? authHeader.substring(BEARER_PREFIX_LENGTH) : "";
     }
 
+    /**
+     * Purchase or sales history, e.g. {@code GET /transactions?buyerId=7&status=COMPLETED}.
+     * Pass the returned {@code nextCursor} back as {@code cursor} for the following page.
+     */
+    @GetMapping
+    public TransactionPage list(@RequestParam Optional<Long> buyerId,
+                                @RequestParam Optional<Long> sellerId,
+                                @RequestParam Optional<TransactionStatus> status,
+                                @RequestParam Optional<String> cursor,
+                                @RequestParam(defaultValue = "50") @Min(1) @Max(500) int limit) {
+        try {
+            return service.list(buyerId, sellerId, status, cursor.map(this::parseCursor), limit);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+
+    private TransactionCursor parseCursor(String cursor) {
+        try {
+            return TransactionCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor", e);
+        }
+    }
+
     @GetMapping("/{id}")
     public TransactionDto get(@PathVariable Long id) {
         return service.get(id);
     }
 
+    /**
+     * Bulk status change for operations tooling, e.g. cancelling every offer on a withdrawn
+     * listing. Always 200; inspect the per-ID outcomes for rows that were not changed.
+     */
+    @PutMapping("/status")
+    public Mono<BulkStatusUpdateResult> updateMany(@Valid @RequestBody BulkStatusUpdateRequest req) {
+        return service.updateStatuses(req);
+    }
+
     @PutMapping("/{id}")
-    public TransactionDto update(@PathVariable Long id, @Valid @RequestBody UpdateTransactionStatusRequest req) {
+    public Mono<TransactionDto> update(@PathVariable Long id, @Valid @RequestBody UpdateTransactionStatusRequest req) {
         return service.updateStatus(id, req);
     }
 }
@@ -0,0 +1,13 @@
+package com.ecocycle.transactions.dto;
+
+import com.ecocycle.transactions.model.TransactionStatus;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record BulkStatusUpdateRequest(
+        @NotEmpty @Size(max = 5000) List<@NotNull Long> ids,
+        @NotNull TransactionStatus status
+) {}
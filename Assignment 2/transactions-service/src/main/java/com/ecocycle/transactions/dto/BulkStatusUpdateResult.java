@@ -0,0 +1,30 @@
+package com.ecocycle.transactions.dto;
+
+import com.ecocycle.transactions.model.TransactionStatus;
+
+import java.util.List;
+
+/**
+ * Per-ID outcome of a bulk status change, in request order with duplicates removed.
+ * {@code status} is the new status when UPDATED, the unchanged current status when REJECTED,
+ * and null when NOT_FOUND.
+ */
+public record BulkStatusUpdateResult(int updated, int rejected, int notFound, List<Outcome> outcomes) {
+
+    public enum Result { UPDATED, REJECTED, NOT_FOUND }
+
+    public record Outcome(Long id, Result result, TransactionStatus status) {}
+
+    public static BulkStatusUpdateResult of(List<Outcome> outcomes) {
+        int updated = 0;
+        int rejected = 0;
+        for (Outcome outcome : outcomes) {
+            if (outcome.result() == Result.UPDATED) {
+                updated++;
+            } else if (outcome.result() == Result.REJECTED) {
+                rejected++;
+            }
+        }
+        return new BulkStatusUpdateResult(updated, rejected, outcomes.size() - updated - rejected, outcomes);
+    }
+}
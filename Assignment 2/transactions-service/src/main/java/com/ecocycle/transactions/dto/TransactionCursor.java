@@ -0,0 +1,43 @@
+package com.ecocycle.transactions.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Position in the (createdAt DESC, id DESC) ordering of transactions.
+ * Clients only ever see the encoded form and hand it back unchanged.
+ */
+public record TransactionCursor(Instant createdAt, Long id) {
+
+    /**
+     * Sorts after every real transaction, so a first page can use the same keyset query as later ones.
+     */
+    public static final TransactionCursor START =
+            new TransactionCursor(Instant.parse("9999-12-31T23:59:59Z"), Long.MAX_VALUE);
+
+    public String encode() {
+        String raw = createdAt.getEpochSecond() + ":" + createdAt.getNano() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the value was not produced by {@link #encode()}
+     */
+    public static TransactionCursor decode(String value) {
+        String[] parts = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8).split(":");
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+        try {
+            return new TransactionCursor(
+                    Instant.ofEpochSecond(Long.parseLong(parts[0]), Long.parseLong(parts[1])),
+                    Long.valueOf(parts[2])
+            );
+        } catch (DateTimeException | ArithmeticException e) {
+            // A forged timestamp outside the Instant range
+            throw new IllegalArgumentException("Malformed cursor", e);
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.ecocycle.transactions.dto;
+
+import java.util.List;
+
+/**
+ * One page of transactions; {@code nextCursor} is null on the last page.
+ */
+public record TransactionPage(List<TransactionDto> items, String nextCursor) {}
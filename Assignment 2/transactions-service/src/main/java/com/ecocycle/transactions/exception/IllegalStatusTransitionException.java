@@ -0,0 +1,14 @@
+package com.ecocycle.transactions.exception;
+
+import com.ecocycle.transactions.model.TransactionStatus;
+
+/**
+ * Thrown when a status change is not allowed from the transaction's current status,
+ * including a concurrent request having moved it first.
+ */
+public class IllegalStatusTransitionException extends RuntimeException {
+
+    public IllegalStatusTransitionException(TransactionStatus current, TransactionStatus next) {
+        super("Cannot change transaction status from " + current + " to " + next);
+    }
+}
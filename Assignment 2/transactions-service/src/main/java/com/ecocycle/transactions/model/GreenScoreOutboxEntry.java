@@ -0,0 +1,51 @@
+package com.ecocycle.transactions.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * A green-score increment owed to users-service, written in the same DB transaction as
+ * the status change that earned it and deleted once users-service has applied it.
+ * <p>
+ * {@code batchId} is assigned when the dispatcher claims the row and never changes, so
+ * a retried batch is sent with the same rows and the same idempotency key. A batch that
+ * users-service rejects as invalid is parked: it keeps its rows for inspection, with
+ * {@code parkedAt} and {@code lastError} set, and is never sent again.
+ */
+@Entity
+@Table(name = "green_score_outbox", indexes = {
+        @Index(name = "idx_green_score_outbox_batch_id", columnList = "batchId"),
+        @Index(name = "idx_green_score_outbox_next_attempt_at", columnList = "nextAttemptAt")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class GreenScoreOutboxEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // null for entries aggregated across a bulk status change
+    private Long transactionId;
+    private Long userId;
+    private int delta;
+
+    private String batchId;
+    private int attempts;
+    private Instant nextAttemptAt = Instant.now();
+    private Instant createdAt = Instant.now();
+
+    // set once users-service rejects the batch as a client error; parked rows are no longer sent
+    private Instant parkedAt;
+    @Column(length = 1000)
+    private String lastError;
+
+    public GreenScoreOutboxEntry(Long transactionId, Long userId, int delta) {
+        this.transactionId = transactionId;
+        this.userId = userId;
+        this.delta = delta;
+    }
+}
@@ -7,7 +7,14 @@ import java.math.BigDecimal;
 import java.time.Instant;
 
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = {
+        // keyset pagination walks (createdAt, id) newest first within a buyer, seller or status
+        @Index(name = "idx_transactions_buyer_created_at_id", columnList = "buyerId, createdAt, id"),
+        @Index(name = "idx_transactions_buyer_status_created_at_id", columnList = "buyerId, status, createdAt, id"),
+        @Index(name = "idx_transactions_seller_created_at_id", columnList = "sellerId, createdAt, id"),
+        @Index(name = "idx_transactions_seller_status_created_at_id", columnList = "sellerId, status, createdAt, id"),
+        @Index(name = "idx_transactions_status_created_at_id", columnList = "status, createdAt, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -1,8 +1,30 @@
 package com.ecocycle.transactions.model;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 public enum TransactionStatus {
     PENDING,
     CONFIRMED,
     COMPLETED,
-    CANCELLED
+    CANCELLED;
+
+    /**
+     * Statuses a transaction may be in when it moves to this one. An offer is confirmed
+     * before it completes; COMPLETED and CANCELLED are final, and nothing moves back to PENDING.
+     *
+     * @return The allowed previous statuses, empty if this status can never be entered
+     */
+    public Set<TransactionStatus> allowedPredecessors() {
+        return switch (this) {
+            case PENDING -> EnumSet.noneOf(TransactionStatus.class);
+            case CONFIRMED -> EnumSet.of(PENDING);
+            case COMPLETED -> EnumSet.of(CONFIRMED);
+            case CANCELLED -> EnumSet.of(PENDING, CONFIRMED);
+        };
+    }
+
+    public boolean canTransitionTo(TransactionStatus next) {
+        return next.allowedPredecessors().contains(this);
+    }
 }
@@ -0,0 +1,262 @@
+package com.ecocycle.transactions.outbox;
+
+import com.ecocycle.transactions.client.GreenScoreDelta;
+import com.ecocycle.transactions.client.UsersClient;
+import com.ecocycle.transactions.model.GreenScoreOutboxEntry;
+import com.ecocycle.transactions.repository.GreenScoreOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.Disposable;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Delivers green-score outbox entries to users-service in the background.
+ * <p>
+ * Each poll first claims unassigned entries into batches of up to {@code batch-size}
+ * rows, then sends every batch that is due as one {@code PUT /users/greenscore} call,
+ * with deltas summed per user and the batch id as idempotency key. A delivered batch
+ * is deleted; a failed one is retried with exponential backoff, unless users-service
+ * rejected it as a client error (4xx other than 408 and 429): resending the same rows
+ * cannot succeed, so such a batch is parked as a dead letter instead. users-service
+ * remembers applied batch ids, so a batch that was applied but whose deletion was lost
+ * (crash, timeout after commit) is not counted twice when it is replayed.
+ * <p>
+ * Deliveries are driven by a coalescing window: the first entry committed after a
+ * delivery starts a {@code batch-window} timer, and every entry committed while it
+ * runs rides along in the same dispatch. Once {@code batch-size} entries are waiting
+ * the dispatch starts at once instead. The fixed-delay poll stays as the fallback for
+ * retries and for entries committed by other instances or before a restart.
+ */
+@Slf4j
+@Component
+public class GreenScoreOutboxDispatcher {
+
+    // PUT /users/greenscore accepts at most this many deltas; a batch never holds more users than rows
+    static final int MAX_BATCH_SIZE = 1000;
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final GreenScoreOutboxRepository outbox;
+    private final UsersClient users;
+    private final TransactionTemplate tx;
+    private final int batchSize;
+    private final int maxBatchesPerPoll;
+    private final Duration sendTimeout;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration batchWindow;
+
+    private final Object triggerLock = new Object();
+    private int pendingEntries;
+    private boolean dispatchingNow;
+    private Disposable flushTimer;
+
+    private final Counter delivered;
+    private final Counter failed;
+    private final Counter parked;
+
+    public GreenScoreOutboxDispatcher(GreenScoreOutboxRepository outbox,
+                                      UsersClient users,
+                                      TransactionTemplate tx,
+                                      MeterRegistry registry,
+                                      @Value("${users.green-score.outbox.batch-size:500}") int batchSize,
+                                      @Value("${users.green-score.outbox.max-batches-per-poll:20}") int maxBatchesPerPoll,
+                                      @Value("${users.green-score.outbox.send-timeout:10s}") Duration sendTimeout,
+                                      @Value("${users.green-score.outbox.initial-backoff:1s}") Duration initialBackoff,
+                                      @Value("${users.green-score.outbox.max-backoff:5m}") Duration maxBackoff,
+                                      @Value("${users.green-score.outbox.batch-window:50ms}") Duration batchWindow) {
+        if (batchSize < 1 || batchSize > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("users.green-score.outbox.batch-size must be between 1 and "
+                    + MAX_BATCH_SIZE + ", was " + batchSize);
+        }
+        this.outbox = outbox;
+        this.users = users;
+        this.tx = tx;
+        this.batchSize = batchSize;
+        this.maxBatchesPerPoll = maxBatchesPerPoll;
+        this.sendTimeout = sendTimeout;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.batchWindow = batchWindow;
+        this.delivered = registry.counter("green_score.outbox.batches", "result", "delivered");
+        this.failed = registry.counter("green_score.outbox.batches", "result", "failed");
+        this.parked = registry.counter("green_score.outbox.batches", "result", "parked");
+    }
+
+    /**
+     * Counts freshly committed entries towards the next dispatch: starts the batch window
+     * for the first of them and dispatches right away once a full batch is waiting.
+     * Only schedules work, so the committing thread is never held up by delivery.
+     *
+     * @param event The committed outbox write
+     */
+    @TransactionalEventListener
+    public void onEnqueued(GreenScoresEnqueued event) {
+        synchronized (triggerLock) {
+            pendingEntries += event.entries();
+            if (dispatchingNow) {
+                return;
+            }
+            if (pendingEntries >= batchSize) {
+                if (flushTimer != null) {
+                    flushTimer.dispose();
+                }
+                dispatchingNow = true;
+                flushTimer = Schedulers.boundedElastic().schedule(this::dispatchPending);
+            } else if (flushTimer == null) {
+                flushTimer = Schedulers.boundedElastic()
+                        .schedule(this::dispatchPending, batchWindow.toMillis(), TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * Resets the window before dispatching, so entries committed during delivery start
+     * the next window rather than being forgotten.
+     * Refactoring: Extract Method - Reduces Long Method smell.
+     */
+    private void dispatchPending() {
+        synchronized (triggerLock) {
+            pendingEntries = 0;
+            dispatchingNow = false;
+            flushTimer = null;
+        }
+        dispatch();
+    }
+
+    /**
+     * Stops a pending window on shutdown; its entries stay in the outbox for the next start.
+     */
+    @PreDestroy
+    void cancelPendingDispatch() {
+        synchronized (triggerLock) {
+            if (flushTimer != null) {
+                flushTimer.dispose();
+                flushTimer = null;
+            }
+        }
+    }
+
+    /**
+     * Claims and delivers due batches. Synchronized so the scheduled poll and a window
+     * triggered dispatch never deliver the same batch twice concurrently.
+     */
+    @Scheduled(fixedDelayString = "${users.green-score.outbox.poll-interval:500ms}")
+    public synchronized void dispatch() {
+        for (int i = 0; i < maxBatchesPerPoll; i++) {
+            if (claimBatch() < batchSize) {
+                break;
+            }
+        }
+        for (String batchId : outbox.findDueBatchIds(Instant.now(), Limit.of(maxBatchesPerPoll))) {
+            deliver(batchId);
+        }
+    }
+
+    /**
+     * Assigns a new batch id to up to {@code batchSize} unclaimed entries.
+     *
+     * @return the number of entries claimed
+     */
+    private int claimBatch() {
+        Integer claimed = tx.execute(status -> {
+            List<GreenScoreOutboxEntry> entries = outbox.findByBatchIdIsNullOrderByIdAsc(Limit.of(batchSize));
+            String batchId = UUID.randomUUID().toString();
+            entries.forEach(e -> e.setBatchId(batchId));
+            return entries.size();
+        });
+        return claimed == null ? 0 : claimed;
+    }
+
+    private void deliver(String batchId) {
+        List<GreenScoreOutboxEntry> entries = outbox.findByBatchId(batchId);
+        if (entries.isEmpty()) {
+            return;
+        }
+        try {
+            users.applyGreenScoreBatch(batchId, sumPerUser(entries)).block(sendTimeout);
+            tx.executeWithoutResult(status -> outbox.deleteByBatchId(batchId));
+            delivered.increment();
+        } catch (RuntimeException e) {
+            WebClientResponseException rejection = clientError(e);
+            if (rejection != null) {
+                park(batchId, entries.size(), rejection);
+                return;
+            }
+            int attempts = entries.get(0).getAttempts() + 1;
+            Instant next = Instant.now().plus(backoff(attempts));
+            tx.executeWithoutResult(status -> outbox.scheduleRetry(batchId, next));
+            failed.increment();
+            log.warn("Green score batch {} ({} entries) failed on attempt {}, retrying at {}",
+                    batchId, entries.size(), attempts, next, e);
+        }
+    }
+
+    /**
+     * Takes a batch users-service refused out of delivery, keeping its rows as a dead letter.
+     * Refactoring: Extract Method - Reduces Long Method smell.
+     *
+     * @param batchId The rejected batch
+     * @param entries Number of rows in the batch
+     * @param rejection The users-service response
+     */
+    private void park(String batchId, int entries, WebClientResponseException rejection) {
+        String error = rejection.getStatusCode().value() + " " + rejection.getResponseBodyAsString();
+        String stored = error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+        tx.executeWithoutResult(status -> outbox.park(batchId, Instant.now(), stored));
+        parked.increment();
+        log.error("Green score batch {} ({} entries) rejected by users-service with {}; parked, not retried",
+                batchId, entries, error);
+    }
+
+    /**
+     * The users-service response behind {@code e} if it is a client error that resending
+     * cannot fix; 408 and 429 are transient and stay retryable.
+     */
+    private static WebClientResponseException clientError(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof WebClientResponseException response) {
+                int status = response.getStatusCode().value();
+                boolean permanent = response.getStatusCode().is4xxClientError() && status != 408 && status != 429;
+                return permanent ? response : null;
+            }
+        }
+        return null;
+    }
+
+    private List<GreenScoreDelta> sumPerUser(List<GreenScoreOutboxEntry> entries) {
+        Map<Long, Integer> perUser = new TreeMap<>();
+        for (GreenScoreOutboxEntry e : entries) {
+            perUser.merge(e.getUserId(), e.getDelta(), Integer::sum);
+        }
+        List<GreenScoreDelta> deltas = new ArrayList<>(perUser.size());
+        perUser.forEach((userId, delta) -> deltas.add(new GreenScoreDelta(userId, delta)));
+        return deltas;
+    }
+
+    /**
+     * initialBackoff * 2^(attempts - 1), capped at maxBackoff.
+     */
+    Duration backoff(int attempts) {
+        int shift = Math.min(attempts - 1, 30);
+        Duration delay = initialBackoff.multipliedBy(1L << shift);
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+}
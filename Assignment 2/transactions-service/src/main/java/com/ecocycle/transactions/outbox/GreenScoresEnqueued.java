@@ -0,0 +1,10 @@
+package com.ecocycle.transactions.outbox;
+
+/**
+ * Published when green-score outbox entries are written; the dispatcher hears about
+ * it only after the enclosing transaction commits.
+ *
+ * @param entries Number of outbox rows written
+ */
+public record GreenScoresEnqueued(int entries) {
+}
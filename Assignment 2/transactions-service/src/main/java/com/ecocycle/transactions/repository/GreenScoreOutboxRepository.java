@@ -0,0 +1,48 @@
+package com.ecocycle.transactions.repository;
+
+import com.ecocycle.transactions.model.GreenScoreOutboxEntry;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface GreenScoreOutboxRepository extends JpaRepository<GreenScoreOutboxEntry, Long> {
+
+    /**
+     * Oldest entries not yet assigned to a batch. Rows locked by another dispatcher
+     * instance are skipped (lock timeout -2 = SKIP LOCKED) rather than waited on.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    List<GreenScoreOutboxEntry> findByBatchIdIsNullOrderByIdAsc(Limit limit);
+
+    @Query("select distinct e.batchId from GreenScoreOutboxEntry e"
+            + " where e.batchId is not null and e.parkedAt is null and e.nextAttemptAt <= :now")
+    List<String> findDueBatchIds(@Param("now") Instant now, Limit limit);
+
+    List<GreenScoreOutboxEntry> findByBatchId(String batchId);
+
+    @Modifying
+    @Query("delete from GreenScoreOutboxEntry e where e.batchId = :batchId")
+    int deleteByBatchId(@Param("batchId") String batchId);
+
+    @Modifying
+    @Query("update GreenScoreOutboxEntry e set e.attempts = e.attempts + 1, e.nextAttemptAt = :next where e.batchId = :batchId")
+    int scheduleRetry(@Param("batchId") String batchId, @Param("next") Instant next);
+
+    /**
+     * Takes a batch out of delivery for good; its rows stay as a dead letter.
+     */
+    @Modifying
+    @Query("update GreenScoreOutboxEntry e set e.attempts = e.attempts + 1, e.parkedAt = :now, e.lastError = :error"
+            + " where e.batchId = :batchId")
+    int park(@Param("batchId") String batchId, @Param("now") Instant now, @Param("error") String error);
+}
@@ -1,7 +1,83 @@
 package com.ecocycle.transactions.repository;
 
 import com.ecocycle.transactions.model.Transaction;
+import com.ecocycle.transactions.model.TransactionStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
+
+    // ---- keyset pages, newest first, strictly after the cursor; each is served by one composite index ----
+    // "createdAt <= c and (createdAt < c or id < i)" keeps a range bound on createdAt that the index can seek to
+
+    @Query("""
+            select t from Transaction t where t.buyerId = :buyerId
+            and t.createdAt <= :createdAt and (t.createdAt < :createdAt or t.id < :id)
+            order by t.createdAt desc, t.id desc""")
+    List<Transaction> findBuyerPage(@Param("buyerId") Long buyerId,
+                                    @Param("createdAt") Instant createdAt, @Param("id") Long id, Limit limit);
+
+    @Query("""
+            select t from Transaction t where t.buyerId = :buyerId and t.status = :status
+            and t.createdAt <= :createdAt and (t.createdAt < :createdAt or t.id < :id)
+            order by t.createdAt desc, t.id desc""")
+    List<Transaction> findBuyerPage(@Param("buyerId") Long buyerId, @Param("status") TransactionStatus status,
+                                    @Param("createdAt") Instant createdAt, @Param("id") Long id, Limit limit);
+
+    @Query("""
+            select t from Transaction t where t.sellerId = :sellerId
+            and t.createdAt <= :createdAt and (t.createdAt < :createdAt or t.id < :id)
+            order by t.createdAt desc, t.id desc""")
+    List<Transaction> findSellerPage(@Param("sellerId") Long sellerId,
+                                     @Param("createdAt") Instant createdAt, @Param("id") Long id, Limit limit);
+
+    @Query("""
+            select t from Transaction t where t.sellerId = :sellerId and t.status = :status
+            and t.createdAt <= :createdAt and (t.createdAt < :createdAt or t.id < :id)
+            order by t.createdAt desc, t.id desc""")
+    List<Transaction> findSellerPage(@Param("sellerId") Long sellerId, @Param("status") TransactionStatus status,
+                                     @Param("createdAt") Instant createdAt, @Param("id") Long id, Limit limit);
+
+    @Query("""
+            select t from Transaction t where t.status = :status
+            and t.createdAt <= :createdAt and (t.createdAt < :createdAt or t.id < :id)
+            order by t.createdAt desc, t.id desc""")
+    List<Transaction> findStatusPage(@Param("status") TransactionStatus status,
+                                     @Param("createdAt") Instant createdAt, @Param("id") Long id, Limit limit);
+
+    /**
+     * Compare-and-set status change in one statement: the row is only updated while its
+     * status is still one of {@code expected}, and the updated row is returned.
+     *
+     * @return The updated transaction, or empty if the id is unknown or the status no longer matches
+     */
+    @Query(value = """
+            update transactions set status = :next, updated_at = :now
+            where id = :id and status in (:expected)
+            returning *""", nativeQuery = true)
+    Optional<Transaction> compareAndSetStatus(@Param("id") Long id,
+                                              @Param("expected") Collection<String> expected,
+                                              @Param("next") String next,
+                                              @Param("now") Instant now);
+
+    /**
+     * Set-based form of {@link #compareAndSetStatus}: one statement for many ids.
+     *
+     * @return The rows that were updated; ids that are unknown or not in an expected status are absent
+     */
+    @Query(value = """
+            update transactions set status = :next, updated_at = :now
+            where id in (:ids) and status in (:expected)
+            returning *""", nativeQuery = true)
+    List<Transaction> compareAndSetStatuses(@Param("ids") Collection<Long> ids,
+                                            @Param("expected") Collection<String> expected,
+                                            @Param("next") String next,
+                                            @Param("now") Instant now);
 }
@@ -2,17 +2,33 @@ package com.ecocycle.transactions.service;
 
 import com.ecocycle.transactions.client.MarketplaceClient;
 import com.ecocycle.transactions.client.ListingDto;
-import com.ecocycle.transactions.client.UsersClient;
 import com.ecocycle.transactions.dto.*;
-import com.ecocycle.transactions.exception.GreenScoreUpdateException;
+import com.ecocycle.transactions.exception.IllegalStatusTransitionException;
+import com.ecocycle.transactions.model.GreenScoreOutboxEntry;
 import com.ecocycle.transactions.model.Transaction;
 import com.ecocycle.transactions.model.TransactionStatus;
+import com.ecocycle.transactions.outbox.GreenScoresEnqueued;
+import com.ecocycle.transactions.repository.GreenScoreOutboxRepository;
 import com.ecocycle.transactions.repository.TransactionRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
 
 @Service
 @RequiredArgsConstructor
@@ -21,19 +37,26 @@ public class TransactionService {
     // Refactoring: Extract Constants - Removes Magic Number smells (5 and 10)
     private static final int BUYER_GREEN_SCORE_INCREMENT = 5;
     private static final int SELLER_GREEN_SCORE_INCREMENT = 10;
+    // Rows changed per bulk-update DB transaction, bounding lock hold time and statement size
+    private static final int BULK_UPDATE_CHUNK_SIZE = 500;
 
     private final TransactionRepository repo;
     private final MarketplaceClient marketplace;
-    private final UsersClient users;
+    private final GreenScoreOutboxRepository outbox;
+    private final TransactionTemplate txTemplate;
+    private final ApplicationEventPublisher events;
 
-    public TransactionDto createOffer(CreateOfferRequest req, Long buyerId, String token) {
-        ListingDto listing = marketplace.getListing(req.listingId(), token);
-        if (listing == null) throw new RuntimeException("Listing not found");
-
-        validateListingTypeForOffer(listing);
-
-        Transaction tx = createPendingTransaction(req.listingId(), buyerId, listing.ownerId(), req.offerAmount());
-        return TransactionDto.from(repo.save(tx));
+    /**
+     * Creates a PENDING offer. The listing lookup is non-blocking; only the final JPA save
+     * is handed to a bounded elastic worker, so no thread is parked on the marketplace call.
+     */
+    public Mono<TransactionDto> createOffer(CreateOfferRequest req, Long buyerId, String token) {
+        return marketplace.getListing(req.listingId(), token)
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("Listing not found")))
+                .doOnNext(this::validateListingTypeForOffer)
+                .map(listing -> createPendingTransaction(req.listingId(), buyerId, listing.ownerId(), req.offerAmount()))
+                .flatMap(tx -> onJdbcWorker(() -> repo.save(tx)))
+                .map(TransactionDto::from);
     }
 
     /**
@@ -74,16 +97,13 @@ public class TransactionService {
     }
 
 
-    public TransactionDto claimDonation(ClaimDonationRequest req, Long receiverId, String token) {
-        ListingDto listing = marketplace.getListing(req.listingId(), token);
-        if (listing == null) {
-            throw new RuntimeException("Listing not found");
-        }
-        
-        validateListingTypeForDonation(listing);
-
-        Transaction tx = createConfirmedDonationTransaction(req.listingId(), receiverId, listing.ownerId());
-        return TransactionDto.from(repo.save(tx));
+    public Mono<TransactionDto> claimDonation(ClaimDonationRequest req, Long receiverId, String token) {
+        return marketplace.getListing(req.listingId(), token)
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("Listing not found")))
+                .doOnNext(this::validateListingTypeForDonation)
+                .map(listing -> createConfirmedDonationTransaction(req.listingId(), receiverId, listing.ownerId()))
+                .flatMap(tx -> onJdbcWorker(() -> repo.save(tx)))
+                .map(TransactionDto::from);
     }
 
     /**
@@ -128,33 +148,214 @@ public class TransactionService {
                 .orElseThrow(() -> new RuntimeException("Transaction not found"));
     }
 
-    public TransactionDto updateStatus(Long id, UpdateTransactionStatusRequest req) {
-        Transaction tx = repo.findById(id)
-                .orElseThrow(() -> new RuntimeException("Transaction not found"));
-        tx.setStatus(req.status());
-        tx.setUpdatedAt(Instant.now());
-        
-        if (tx.getStatus() == TransactionStatus.COMPLETED) {
-            updateGreenScoresForCompletedTransaction(tx);
+    /**
+     * Newest-first page of the transactions of one buyer or seller, or of every transaction
+     * in a status, optionally narrowed to a status. Reads {@code limit + 1} rows from the
+     * matching composite index, so the cost depends on the page size, not on the history length.
+     *
+     * @throws IllegalArgumentException if neither party nor status is given, or both parties are
+     */
+    public TransactionPage list(Optional<Long> buyerId,
+                                Optional<Long> sellerId,
+                                Optional<TransactionStatus> status,
+                                Optional<TransactionCursor> cursor,
+                                int limit) {
+        if (buyerId.isPresent() && sellerId.isPresent()) {
+            throw new IllegalArgumentException("Filter by buyerId or sellerId, not both");
+        }
+        TransactionCursor after = cursor.orElse(TransactionCursor.START);
+        List<Transaction> rows = findPage(buyerId, sellerId, status, after, Limit.of(limit + 1));
+        return toPage(rows, limit);
+    }
+
+    /**
+     * Picks the keyset query whose index matches the filters.
+     * Refactoring: Extract Method - Reduces Long Method smell.
+     */
+    private List<Transaction> findPage(Optional<Long> buyerId,
+                                       Optional<Long> sellerId,
+                                       Optional<TransactionStatus> status,
+                                       TransactionCursor after,
+                                       Limit limit) {
+        Instant createdAt = after.createdAt();
+        Long id = after.id();
+        if (buyerId.isPresent()) {
+            return status.isPresent()
+                    ? repo.findBuyerPage(buyerId.get(), status.get(), createdAt, id, limit)
+                    : repo.findBuyerPage(buyerId.get(), createdAt, id, limit);
+        }
+        if (sellerId.isPresent()) {
+            return status.isPresent()
+                    ? repo.findSellerPage(sellerId.get(), status.get(), createdAt, id, limit)
+                    : repo.findSellerPage(sellerId.get(), createdAt, id, limit);
+        }
+        return repo.findStatusPage(status.orElseThrow(
+                () -> new IllegalArgumentException("buyerId, sellerId or status is required")), createdAt, id, limit);
+    }
+
+    /**
+     * Trims the look-ahead row and turns the last returned row into the next cursor.
+     * Refactoring: Extract Method - Reduces Long Statement smell.
+     *
+     * @param rows Up to {@code limit + 1} rows
+     * @param limit The page size
+     * @return The page, with a cursor only if more rows exist
+     */
+    private TransactionPage toPage(List<Transaction> rows, int limit) {
+        if (rows.size() <= limit) {
+            return new TransactionPage(rows.stream().map(TransactionDto::from).toList(), null);
+        }
+        Transaction last = rows.get(limit - 1);
+        return new TransactionPage(
+                rows.subList(0, limit).stream().map(TransactionDto::from).toList(),
+                new TransactionCursor(last.getCreatedAt(), last.getId()).encode());
+    }
+
+    /**
+     * Changes the status with a single conditional UPDATE that only matches while the
+     * transaction is in one of the target's allowed predecessor statuses. Concurrent updates
+     * need no lock, and a transaction cannot be completed twice. When the new status is
+     * COMPLETED the buyer's and seller's score increments are written to the outbox in the
+     * same DB transaction, and {@code GreenScoreOutboxDispatcher} delivers them afterwards.
+     */
+    public Mono<TransactionDto> updateStatus(Long id, UpdateTransactionStatusRequest req) {
+        TransactionStatus next = req.status();
+        return onJdbcWorker(() -> txTemplate.execute(status -> {
+            Transaction tx = applyTransition(id, next)
+                    .orElseThrow(() -> rejectedTransition(id, next));
+
+            if (next == TransactionStatus.COMPLETED) {
+                enqueueGreenScoresForCompletedTransaction(tx);
+            }
+            return TransactionDto.from(tx);
+        }));
+    }
+
+    /**
+     * Issues the compare-and-set update for a transition to {@code next}.
+     * Refactoring: Extract Method - Reduces Long Statement smell.
+     *
+     * @param id The transaction ID
+     * @param next The requested status
+     * @return The updated transaction, or empty if no row was in an allowed status
+     */
+    private Optional<Transaction> applyTransition(Long id, TransactionStatus next) {
+        Set<TransactionStatus> expected = next.allowedPredecessors();
+        if (expected.isEmpty()) {
+            return Optional.empty();
         }
-        
-        repo.save(tx);
-        return TransactionDto.from(tx);
+        List<String> expectedNames = expected.stream().map(Enum::name).toList();
+        return repo.compareAndSetStatus(id, expectedNames, next.name(), Instant.now());
+    }
+
+    /**
+     * Explains why a transition matched no row. Only reached on the failure path, so the
+     * extra read does not cost the successful update a round trip.
+     * Refactoring: Extract Method - Reduces Long Statement smell.
+     *
+     * @param id The transaction ID
+     * @param next The requested status
+     * @return The exception to throw
+     */
+    private RuntimeException rejectedTransition(Long id, TransactionStatus next) {
+        return repo.findById(id)
+                .<RuntimeException>map(tx -> new IllegalStatusTransitionException(tx.getStatus(), next))
+                .orElseGet(() -> new RuntimeException("Transaction not found"));
+    }
+
+    /**
+     * Applies one status change to many transactions. IDs are processed in chunks, each in its
+     * own DB transaction: one conditional UPDATE for the whole chunk, one read to classify the
+     * IDs it did not match, and, when completing, one outbox write with the increments summed
+     * per user. A later chunk failing does not undo earlier ones.
+     */
+    public Mono<BulkStatusUpdateResult> updateStatuses(BulkStatusUpdateRequest req) {
+        List<Long> ids = List.copyOf(new LinkedHashSet<>(req.ids()));
+        int chunks = (ids.size() + BULK_UPDATE_CHUNK_SIZE - 1) / BULK_UPDATE_CHUNK_SIZE;
+        return Flux.range(0, chunks)
+                .map(i -> ids.subList(i * BULK_UPDATE_CHUNK_SIZE, Math.min(ids.size(), (i + 1) * BULK_UPDATE_CHUNK_SIZE)))
+                .concatMap(chunk -> onJdbcWorker(() -> txTemplate.execute(status -> applyTransitionChunk(chunk, req.status()))))
+                .flatMapIterable(outcomes -> outcomes)
+                .collectList()
+                .map(BulkStatusUpdateResult::of);
     }
 
     /**
-     * Updates green scores for buyer and seller when a transaction is completed.
+     * Updates one chunk and reports an outcome per ID, in the chunk's order.
+     * Refactoring: Extract Method - Reduces Long Method smell.
+     *
+     * @param ids Distinct transaction IDs
+     * @param next The requested status
+     * @return One outcome per ID
+     */
+    private List<BulkStatusUpdateResult.Outcome> applyTransitionChunk(List<Long> ids, TransactionStatus next) {
+        List<String> expected = next.allowedPredecessors().stream().map(Enum::name).toList();
+        List<Transaction> updated = expected.isEmpty()
+                ? List.of()
+                : repo.compareAndSetStatuses(ids, expected, next.name(), Instant.now());
+
+        Map<Long, BulkStatusUpdateResult.Outcome> outcomes = new HashMap<>();
+        for (Transaction tx : updated) {
+            outcomes.put(tx.getId(), new BulkStatusUpdateResult.Outcome(tx.getId(), BulkStatusUpdateResult.Result.UPDATED, next));
+        }
+        if (outcomes.size() < ids.size()) {
+            List<Long> unmatched = ids.stream().filter(id -> !outcomes.containsKey(id)).toList();
+            for (Transaction tx : repo.findAllById(unmatched)) {
+                outcomes.put(tx.getId(), new BulkStatusUpdateResult.Outcome(
+                        tx.getId(), BulkStatusUpdateResult.Result.REJECTED, tx.getStatus()));
+            }
+        }
+
+        if (next == TransactionStatus.COMPLETED && !updated.isEmpty()) {
+            enqueueAggregatedGreenScores(updated);
+        }
+        return ids.stream()
+                .map(id -> outcomes.getOrDefault(id,
+                        new BulkStatusUpdateResult.Outcome(id, BulkStatusUpdateResult.Result.NOT_FOUND, null)))
+                .toList();
+    }
+
+    /**
+     * Writes one outbox entry per user holding the sum of everything the completed
+     * transactions earned them. Such entries carry no transaction ID.
+     * Refactoring: Extract Method - Reduces Long Method smell.
+     *
+     * @param completed Transactions that just moved to COMPLETED
+     */
+    private void enqueueAggregatedGreenScores(List<Transaction> completed) {
+        Map<Long, Integer> deltas = new TreeMap<>();
+        for (Transaction tx : completed) {
+            deltas.merge(tx.getBuyerId(), BUYER_GREEN_SCORE_INCREMENT, Integer::sum);
+            deltas.merge(tx.getSellerId(), SELLER_GREEN_SCORE_INCREMENT, Integer::sum);
+        }
+        outbox.saveAll(deltas.entrySet().stream()
+                .map(e -> new GreenScoreOutboxEntry(null, e.getKey(), e.getValue()))
+                .toList());
+        events.publishEvent(new GreenScoresEnqueued(deltas.size()));
+    }
+
+    /**
+     * Records the green score increments earned by a completed transaction in the outbox.
      * Refactoring: Extract Method - Reduces Long Method smell and Feature Envy.
      * 
      * @param tx The completed transaction
-     * @throws GreenScoreUpdateException if score update fails
-     */
-    private void updateGreenScoresForCompletedTransaction(Transaction tx) {
-        try {
-            users.incrementGreenScore(tx.getBuyerId(), BUYER_GREEN_SCORE_INCREMENT);
-            users.incrementGreenScore(tx.getSellerId(), SELLER_GREEN_SCORE_INCREMENT);
-        } catch (Exception e) {
-            throw new GreenScoreUpdateException("Failed to update user scores", e);
-        }
+     */
+    private void enqueueGreenScoresForCompletedTransaction(Transaction tx) {
+        outbox.saveAll(List.of(
+                new GreenScoreOutboxEntry(tx.getId(), tx.getBuyerId(), BUYER_GREEN_SCORE_INCREMENT),
+                new GreenScoreOutboxEntry(tx.getId(), tx.getSellerId(), SELLER_GREEN_SCORE_INCREMENT)));
+        events.publishEvent(new GreenScoresEnqueued(2));
+    }
+
+    /**
+     * Runs a blocking JPA call on the bounded elastic scheduler so it never executes on
+     * a Netty event loop thread.
+     * Refactoring: Extract Method - Removes Duplicate Code smell.
+     *
+     * @param call The repository call
+     * @return A Mono emitting the call's result
+     */
+    private <T> Mono<T> onJdbcWorker(Callable<T> call) {
+        return Mono.fromCallable(call).subscribeOn(Schedulers.boundedElastic());
     }
 }
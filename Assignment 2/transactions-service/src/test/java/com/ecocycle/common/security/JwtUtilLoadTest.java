@@ -0,0 +1,63 @@
+package com.ecocycle.common.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Load test for JwtUtil.validateAndExtractUserId().
+ *
+ * Validates the same set of distinct tokens on a cold JwtUtil, where every call parses the
+ * token and checks its HMAC signature, and again on a warm one, where every call is a
+ * SHA-256 digest and a cache hit.
+ */
+@DisplayName("JwtUtil.validateAndExtractUserId() Load Test")
+class JwtUtilLoadTest {
+
+    private static final String SECRET = "my-super-long-secret-key-ecocycle-123456789";
+    private static final long ONE_DAY_MS = 86_400_000L;
+    private static final int TOKENS = 1_000;
+    private static final int ROUNDS = 5;
+
+    @Test
+    @DisplayName("JWT-LOAD-1: Cached tokens validate several times faster than a full parse")
+    void testValidate_CachedTokens_ShouldBeFasterThanParsing() {
+        List<String> tokens = new ArrayList<>(TOKENS);
+        JwtUtil issuer = new JwtUtil(SECRET, ONE_DAY_MS);
+        for (long id = 1; id <= TOKENS; id++) {
+            tokens.add(issuer.generateToken(id));
+        }
+
+        // Best of several rounds on both paths, so JIT warm-up and GC pauses do not decide the outcome
+        double parseUs = Double.MAX_VALUE;
+        double hitUs = Double.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            JwtUtil jwtUtil = new JwtUtil(SECRET, ONE_DAY_MS);
+            parseUs = Math.min(parseUs, validateAll(jwtUtil, tokens));
+            hitUs = Math.min(hitUs, validateAll(jwtUtil, tokens));
+        }
+
+        assertTrue(hitUs * 3 < parseUs,
+                "Expected cache hits to beat parsing, got " + hitUs + " us vs " + parseUs + " us per token");
+    }
+
+    /**
+     * Validates every token once and checks it resolves to its user.
+     * Refactoring: Extract Method - Removes Duplicate Code smell.
+     *
+     * @param jwtUtil The validator under test
+     * @param tokens Tokens for users 1..n in order
+     * @return Mean microseconds per validation
+     */
+    private static double validateAll(JwtUtil jwtUtil, List<String> tokens) {
+        long start = System.nanoTime();
+        for (int i = 0; i < tokens.size(); i++) {
+            assertEquals(i + 1L, jwtUtil.validateAndExtractUserId(tokens.get(i)));
+        }
+        return (System.nanoTime() - start) / 1000.0 / tokens.size();
+    }
+}
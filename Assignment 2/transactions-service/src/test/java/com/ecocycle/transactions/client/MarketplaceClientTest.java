@@ -0,0 +1,248 @@
+package com.ecocycle.transactions.client;
+
+import com.ecocycle.transactions.cache.ListingSnapshotCache;
+import com.sun.net.httpserver.HttpServer;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.handler.timeout.ReadTimeoutException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for MarketplaceClient against a local stub of marketplace-service.
+ *
+ * The stub counts requests per path and delays every response so that concurrent
+ * callers overlap with the request in flight. Individual tests change the delay and
+ * the response status to inject slow responses and errors.
+ */
+@DisplayName("MarketplaceClient Tests")
+class MarketplaceClientTest {
+
+    private static final long MARKETPLACE_LATENCY_MS = 300;
+    private static final int CALLERS = 100;
+
+    private volatile long latencyMs = MARKETPLACE_LATENCY_MS;
+    private volatile int responseStatus = 200;
+
+    private HttpServer marketplaceStub;
+    private ExecutorService stubExecutor;
+    private ExecutorService callers;
+    private final Map<String, AtomicInteger> requestsByPath = new ConcurrentHashMap<>();
+    private OutboundHttpClients http;
+    private MarketplaceClient marketplaceClient;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        stubExecutor = Executors.newCachedThreadPool();
+        callers = Executors.newFixedThreadPool(16);
+        marketplaceStub = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        marketplaceStub.setExecutor(stubExecutor);
+        marketplaceStub.createContext("/listings/", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            requestsByPath.computeIfAbsent(path, p -> new AtomicInteger()).incrementAndGet();
+            try {
+                Thread.sleep(latencyMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            String id = path.substring("/listings/".length());
+            byte[] body = ("{\"id\":" + id + ",\"title\":\"Sofa\",\"type\":\"DONATION\",\"price\":0,\"ownerId\":7}")
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(responseStatus, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        marketplaceStub.start();
+
+        http = new OutboundHttpClients(128, 1000, Duration.ofSeconds(5), Duration.ofSeconds(20),
+                Duration.ofMinutes(5), false, true, DataSize.ofMegabytes(1));
+        marketplaceClient = newClient(Duration.ofSeconds(10),
+                CircuitBreakerRegistry.ofDefaults(), BulkheadRegistry.of(BulkheadConfig.custom().maxConcurrentCalls(200).build()));
+    }
+
+    private MarketplaceClient newClient(Duration responseTimeout, CircuitBreakerRegistry circuitBreakers,
+                                        BulkheadRegistry bulkheads) {
+        String baseUrl = "http://127.0.0.1:" + marketplaceStub.getAddress().getPort();
+        ListingSnapshotCache listingCache = new ListingSnapshotCache(
+                1000, Duration.ofSeconds(30), Duration.ofMinutes(10), new SimpleMeterRegistry());
+        return new MarketplaceClient(baseUrl, Duration.ofSeconds(2), responseTimeout, http,
+                listingCache, circuitBreakers, bulkheads);
+    }
+
+    private int totalRequests() {
+        return requestsByPath.values().stream().mapToInt(AtomicInteger::get).sum();
+    }
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+        http.close();
+        marketplaceStub.stop(0);
+        stubExecutor.shutdownNow();
+    }
+
+    /**
+     * TEST CASE 1: N concurrent callers for the same listing
+     *
+     * Expected: exactly one upstream request, every caller receives the same listing
+     */
+    @Test
+    @DisplayName("SF-1: Concurrent lookups for one listing share a single upstream request")
+    void testGetListing_ConcurrentCallersSameId_ShouldIssueOneRequest() throws Exception {
+        List<ListingDto> results = runConcurrently(i -> 42L);
+
+        assertEquals(1, requestsByPath.get("/listings/42").get());
+        assertEquals(CALLERS, results.size());
+        assertTrue(results.stream().allMatch(listing -> listing.id() == 42L && listing.ownerId() == 7L));
+    }
+
+    /**
+     * TEST CASE 2: Concurrent callers for different listings
+     *
+     * Expected: lookups for different keys are not coalesced with each other
+     */
+    @Test
+    @DisplayName("SF-2: Concurrent lookups for different listings are not coalesced")
+    void testGetListing_ConcurrentCallersDifferentIds_ShouldIssueOneRequestPerId() throws Exception {
+        List<ListingDto> results = runConcurrently(i -> (long) (i % 4));
+
+        assertEquals(4, requestsByPath.size());
+        requestsByPath.values().forEach(count -> assertEquals(1, count.get()));
+        assertEquals(CALLERS, results.size());
+    }
+
+    /**
+     * TEST CASE 3: Response slower than the configured response timeout
+     *
+     * Expected: the call fails with a read timeout instead of waiting for the response
+     */
+    @Test
+    @DisplayName("RES-1: Slow response fails with a timeout")
+    void testGetListing_ResponseSlowerThanTimeout_ShouldFailWithTimeout() {
+        latencyMs = 3000;
+        MarketplaceClient client = newClient(Duration.ofMillis(300),
+                CircuitBreakerRegistry.ofDefaults(), BulkheadRegistry.ofDefaults());
+
+        WebClientRequestException exception = assertThrows(WebClientRequestException.class,
+                () -> client.getListing(1L, "token").block(Duration.ofSeconds(30)));
+
+        assertInstanceOf(ReadTimeoutException.class, exception.getCause());
+    }
+
+    /**
+     * TEST CASE 4: Dependency keeps failing with 503
+     *
+     * Expected: once the failure rate crosses the threshold the breaker opens, later calls
+     * fail fast without reaching marketplace-service, and the state is exported as a metric
+     */
+    @Test
+    @DisplayName("RES-2: Circuit breaker opens on errors and fails fast")
+    void testGetListing_RepeatedServerErrors_ShouldOpenCircuitBreaker() {
+        latencyMs = 0;
+        responseStatus = 503;
+        CircuitBreakerRegistry circuitBreakers = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .slidingWindowSize(4)
+                .minimumNumberOfCalls(4)
+                .failureRateThreshold(50)
+                .waitDurationInOpenState(Duration.ofMinutes(1))
+                .build());
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakers).bindTo(meterRegistry);
+        MarketplaceClient client = newClient(Duration.ofSeconds(10), circuitBreakers, BulkheadRegistry.ofDefaults());
+
+        for (long id = 1; id <= 4; id++) {
+            long listingId = id;
+            assertThrows(WebClientResponseException.ServiceUnavailable.class,
+                    () -> client.getListing(listingId, "token").block(Duration.ofSeconds(30)));
+        }
+        assertThrows(CallNotPermittedException.class,
+                () -> client.getListing(5L, "token").block(Duration.ofSeconds(30)));
+
+        assertEquals(4, totalRequests());
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreakers.circuitBreaker("marketplace").getState());
+        assertEquals(1.0, meterRegistry.get("resilience4j.circuitbreaker.state")
+                .tags("name", "marketplace", "state", "open").gauge().value());
+    }
+
+    /**
+     * TEST CASE 5: More concurrent calls than the bulkhead allows
+     *
+     * Expected: calls above the limit are rejected immediately and never reach marketplace-service
+     */
+    @Test
+    @DisplayName("RES-3: Bulkhead rejects calls above the concurrency limit")
+    void testGetListing_MoreConcurrentCallsThanBulkhead_ShouldRejectExcess() {
+        latencyMs = 1000;
+        MarketplaceClient client = newClient(Duration.ofSeconds(10), CircuitBreakerRegistry.ofDefaults(),
+                BulkheadRegistry.of(BulkheadConfig.custom().maxConcurrentCalls(2).maxWaitDuration(Duration.ZERO).build()));
+
+        List<Object> outcomes = Flux.range(1, 5)
+                .flatMap(i -> client.getListing((long) i, "token")
+                        .<Object>map(listing -> listing)
+                        .onErrorResume(e -> Mono.just(e)))
+                .collectList()
+                .block(Duration.ofSeconds(30));
+
+        assertNotNull(outcomes);
+        assertEquals(2, outcomes.stream().filter(ListingDto.class::isInstance).count());
+        assertEquals(3, outcomes.stream().filter(BulkheadFullException.class::isInstance).count());
+        assertEquals(2, totalRequests());
+    }
+
+    /**
+     * Releases {@value #CALLERS} callers at once and waits for all of their results.
+     */
+    private List<ListingDto> runConcurrently(IntFunction<Long> idForCaller) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<ListingDto>> futures = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            Long id = idForCaller.apply(i);
+            String token = "token-" + i;
+            futures.add(callers.submit(() -> {
+                start.await();
+                return marketplaceClient.getListing(id, token).block(Duration.ofSeconds(30));
+            }));
+        }
+        start.countDown();
+
+        List<ListingDto> results = new ArrayList<>();
+        for (Future<ListingDto> future : futures) {
+            results.add(future.get(60, TimeUnit.SECONDS));
+        }
+        return results;
+    }
+}
@@ -0,0 +1,145 @@
+package com.ecocycle.transactions.client;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Load test for the shared outbound connection pool.
+ *
+ * A loopback stub holds every request for a fixed latency and records how many requests
+ * it is serving at once and from how many client connections. Reactor Netty's default
+ * pool admits 16 connections plus 32 pending acquires, so it would reject most of the
+ * 256 concurrent requests sent here; the shared pool has to carry them all on at most its
+ * configured number of keep-alive connections.
+ */
+@DisplayName("OutboundHttpClients Load Test")
+class OutboundHttpClientsLoadTest {
+
+    private static final int MAX_CONNECTIONS = 128;
+    // Reactor Netty's default pool size on small hosts
+    private static final int DEFAULT_POOL_CONNECTIONS = 16;
+    private static final int REQUESTS = 256;
+    private static final long LATENCY_MS = 200;
+
+    private HttpServer stub;
+    private ExecutorService stubExecutor;
+    private OutboundHttpClients http;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        stubExecutor = Executors.newCachedThreadPool();
+        stub = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        stub.setExecutor(stubExecutor);
+        stub.createContext("/ping", exchange -> {
+            clientPorts.add(exchange.getRemoteAddress().getPort());
+            peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(LATENCY_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                inFlight.decrementAndGet();
+            }
+            byte[] body = "pong".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        stub.start();
+
+        http = pool(MAX_CONNECTIONS);
+    }
+
+    private static OutboundHttpClients pool(int maxConnections) {
+        return new OutboundHttpClients(maxConnections, 1000, Duration.ofSeconds(5), Duration.ofSeconds(20),
+                Duration.ofMinutes(5), false, true, DataSize.ofMegabytes(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        http.close();
+        stub.stop(0);
+        stubExecutor.shutdownNow();
+    }
+
+    /**
+     * Sends {@code count} GETs at once through each of {@code clients} in round-robin order.
+     * Refactoring: Extract Method - Removes Duplicate Code smell.
+     *
+     * @param clients WebClients to spread the requests over
+     * @param count Number of requests
+     * @return The response bodies
+     */
+    private List<String> sendConcurrently(List<WebClient> clients, int count) {
+        String url = "http://127.0.0.1:" + stub.getAddress().getPort() + "/ping";
+        return Flux.range(0, count)
+                .flatMap(i -> clients.get(i % clients.size()).get().uri(url).retrieve().bodyToMono(String.class), count)
+                .collectList()
+                .block(Duration.ofSeconds(30));
+    }
+
+    /**
+     * TEST CASE 1: A burst wider than the default pool is served without rejections
+     */
+    @Test
+    @DisplayName("HTTP-LOAD-1: 256 concurrent requests all succeed, overlapping beyond 16 on at most 128 connections")
+    void testCreate_BurstAboveDefaultPool_ShouldUseConfiguredConnections() {
+        WebClient client = http.create(Duration.ofSeconds(2), Duration.ofSeconds(10));
+
+        List<String> bodies = sendConcurrently(List.of(client), REQUESTS);
+
+        assertEquals(REQUESTS, bodies.size());
+        assertTrue(bodies.stream().allMatch("pong"::equals));
+        assertTrue(peakInFlight.get() > DEFAULT_POOL_CONNECTIONS, "peak in flight " + peakInFlight.get());
+        assertTrue(peakInFlight.get() <= MAX_CONNECTIONS, "peak in flight " + peakInFlight.get());
+        assertTrue(clientPorts.size() <= MAX_CONNECTIONS, "opened " + clientPorts.size() + " connections");
+    }
+
+    /**
+     * TEST CASE 2: Every client drawn from the component shares the one pool
+     */
+    @Test
+    @DisplayName("HTTP-LOAD-2: Several WebClients together never exceed the shared pool")
+    void testCreate_SeveralClients_ShouldShareOnePool() {
+        int shared = 8;
+        http.close();
+        http = pool(shared);
+        List<WebClient> clients = List.of(
+                http.create(Duration.ofSeconds(2), Duration.ofSeconds(10)),
+                http.create(Duration.ofSeconds(2), Duration.ofSeconds(10)),
+                http.create(Duration.ofSeconds(2), Duration.ofSeconds(10)));
+
+        assertEquals(48, sendConcurrently(clients, 48).size());
+        int connectionsAfterFirstBurst = clientPorts.size();
+        assertEquals(48, sendConcurrently(clients, 48).size());
+
+        // one pool per client would have allowed 24
+        assertTrue(peakInFlight.get() <= shared, "peak in flight " + peakInFlight.get());
+        assertTrue(connectionsAfterFirstBurst <= shared, "opened " + connectionsAfterFirstBurst + " connections");
+        // keep-alive: the second burst reuses the pooled connections
+        assertEquals(connectionsAfterFirstBurst, clientPorts.size());
+    }
+}
@@ -0,0 +1,43 @@
+package com.ecocycle.transactions.dto;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for TransactionCursor.decode()
+ */
+@DisplayName("TransactionCursor.decode() Tests")
+class TransactionCursorTest {
+
+    private static String encodeRaw(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * TEST CASE 1: A cursor survives an encode/decode round trip
+     */
+    @Test
+    @DisplayName("TCUR-1: Encoded cursor decodes to the same position")
+    void testDecode_EncodedCursor_ShouldRoundTrip() {
+        TransactionCursor cursor = new TransactionCursor(Instant.parse("2025-10-01T12:34:56.123456789Z"), 7L);
+
+        assertEquals(cursor, TransactionCursor.decode(cursor.encode()));
+    }
+
+    /**
+     * TEST CASE 2: A forged timestamp outside the Instant range is rejected, not leaked as DateTimeException
+     */
+    @Test
+    @DisplayName("TCUR-2: Out-of-range timestamps are rejected as malformed")
+    void testDecode_OutOfRangeTimestamp_ShouldThrowIllegalArgument() {
+        assertThrows(IllegalArgumentException.class, () -> TransactionCursor.decode(encodeRaw(Long.MAX_VALUE + ":0:1")));
+        assertThrows(IllegalArgumentException.class,
+                () -> TransactionCursor.decode(encodeRaw("31556889864403199:" + Long.MAX_VALUE + ":1")));
+    }
+}
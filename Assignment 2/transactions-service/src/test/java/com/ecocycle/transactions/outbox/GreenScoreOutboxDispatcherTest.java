@@ -0,0 +1,247 @@
+package com.ecocycle.transactions.outbox;
+
+import com.ecocycle.transactions.client.GreenScoreDelta;
+import com.ecocycle.transactions.client.UsersClient;
+import com.ecocycle.transactions.exception.GreenScoreUpdateException;
+import com.ecocycle.transactions.model.GreenScoreOutboxEntry;
+import com.ecocycle.transactions.repository.GreenScoreOutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for GreenScoreOutboxDispatcher.dispatch() and GreenScoreOutboxDispatcher.onEnqueued()
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("GreenScoreOutboxDispatcher Tests")
+class GreenScoreOutboxDispatcherTest {
+
+    private static final String BATCH_ID = "batch-1";
+
+    @Mock
+    private GreenScoreOutboxRepository outboxRepository;
+
+    @Mock
+    private UsersClient usersClient;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private GreenScoreOutboxDispatcher dispatcher;
+
+    private GreenScoreOutboxDispatcher dispatcher(Duration batchWindow) {
+        return new GreenScoreOutboxDispatcher(outboxRepository, usersClient, transactionTemplate,
+                new SimpleMeterRegistry(), 500, 20, Duration.ofSeconds(5), Duration.ofSeconds(1), Duration.ofMinutes(5),
+                batchWindow);
+    }
+
+    @BeforeEach
+    void setUp() {
+        dispatcher = dispatcher(Duration.ofMillis(100));
+
+        // Run transaction callbacks inline, as a real TransactionTemplate would
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        lenient().doAnswer(invocation -> {
+            invocation.<Consumer<Object>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    private GreenScoreOutboxEntry entry(Long userId, int delta, int attempts) {
+        GreenScoreOutboxEntry e = new GreenScoreOutboxEntry(1L, userId, delta);
+        e.setBatchId(BATCH_ID);
+        e.setAttempts(attempts);
+        return e;
+    }
+
+    /**
+     * TEST CASE 1: Unclaimed entries get one shared batch id
+     */
+    @Test
+    @DisplayName("OB-1: Unclaimed entries are assigned a single batch id")
+    void testDispatch_UnclaimedEntries_ShouldBeAssignedOneBatchId() {
+        GreenScoreOutboxEntry a = new GreenScoreOutboxEntry(1L, 100L, 5);
+        GreenScoreOutboxEntry b = new GreenScoreOutboxEntry(1L, 200L, 10);
+        when(outboxRepository.findByBatchIdIsNullOrderByIdAsc(any(Limit.class))).thenReturn(List.of(a, b));
+        when(outboxRepository.findDueBatchIds(any(Instant.class), any(Limit.class))).thenReturn(List.of());
+
+        dispatcher.dispatch();
+
+        assertNotNull(a.getBatchId());
+        assertEquals(a.getBatchId(), b.getBatchId());
+        verifyNoInteractions(usersClient);
+    }
+
+    /**
+     * TEST CASE 2: A due batch is sent with deltas summed per user, then deleted
+     */
+    @Test
+    @DisplayName("OB-2: Due batch is sent once with per-user sums and deleted on success")
+    @SuppressWarnings("unchecked")
+    void testDispatch_DueBatch_ShouldSendSummedDeltasAndDelete() {
+        when(outboxRepository.findByBatchIdIsNullOrderByIdAsc(any(Limit.class))).thenReturn(List.of());
+        when(outboxRepository.findDueBatchIds(any(Instant.class), any(Limit.class))).thenReturn(List.of(BATCH_ID));
+        when(outboxRepository.findByBatchId(BATCH_ID))
+                .thenReturn(List.of(entry(100L, 5, 0), entry(200L, 10, 0), entry(100L, 10, 0)));
+        when(usersClient.applyGreenScoreBatch(eq(BATCH_ID), anyList())).thenReturn(Mono.empty());
+
+        dispatcher.dispatch();
+
+        ArgumentCaptor<List<GreenScoreDelta>> deltas = ArgumentCaptor.forClass(List.class);
+        verify(usersClient).applyGreenScoreBatch(eq(BATCH_ID), deltas.capture());
+        assertEquals(List.of(new GreenScoreDelta(100L, 15), new GreenScoreDelta(200L, 10)), deltas.getValue());
+        verify(outboxRepository).deleteByBatchId(BATCH_ID);
+        verify(outboxRepository, never()).scheduleRetry(anyString(), any(Instant.class));
+    }
+
+    /**
+     * TEST CASE 3: users-service failure keeps the batch and schedules a retry with backoff
+     */
+    @Test
+    @DisplayName("OB-3: Failed batch is kept and retried after exponential backoff")
+    void testDispatch_UsersServiceFails_ShouldScheduleRetryWithBackoff() {
+        when(outboxRepository.findByBatchIdIsNullOrderByIdAsc(any(Limit.class))).thenReturn(List.of());
+        when(outboxRepository.findDueBatchIds(any(Instant.class), any(Limit.class))).thenReturn(List.of(BATCH_ID));
+        when(outboxRepository.findByBatchId(BATCH_ID)).thenReturn(List.of(entry(100L, 5, 2)));
+        when(usersClient.applyGreenScoreBatch(eq(BATCH_ID), anyList()))
+                .thenReturn(Mono.error(new GreenScoreUpdateException("Failed to update user scores", null)));
+
+        Instant before = Instant.now();
+        dispatcher.dispatch();
+
+        ArgumentCaptor<Instant> next = ArgumentCaptor.forClass(Instant.class);
+        verify(outboxRepository).scheduleRetry(eq(BATCH_ID), next.capture());
+        // third attempt: 1s * 2^2
+        Duration delay = Duration.between(before, next.getValue());
+        assertTrue(delay.compareTo(Duration.ofSeconds(4)) >= 0 && delay.compareTo(Duration.ofSeconds(5)) < 0);
+        verify(outboxRepository, never()).deleteByBatchId(anyString());
+    }
+
+    /**
+     * TEST CASE 4: Backoff doubles per attempt and is capped
+     */
+    @Test
+    @DisplayName("OB-4: Backoff doubles per attempt up to the maximum")
+    void testBackoff_ShouldDoubleAndCap() {
+        assertEquals(Duration.ofSeconds(1), dispatcher.backoff(1));
+        assertEquals(Duration.ofSeconds(2), dispatcher.backoff(2));
+        assertEquals(Duration.ofSeconds(256), dispatcher.backoff(9));
+        assertEquals(Duration.ofMinutes(5), dispatcher.backoff(10));
+        assertEquals(Duration.ofMinutes(5), dispatcher.backoff(1000));
+    }
+
+    /**
+     * TEST CASE 5: Entries committed within one batch window are delivered by a single dispatch
+     */
+    @Test
+    @DisplayName("OB-5: Enqueues inside the batch window coalesce into one dispatch")
+    void testOnEnqueued_WithinWindow_ShouldDispatchOnce() {
+        dispatcher.onEnqueued(new GreenScoresEnqueued(2));
+        dispatcher.onEnqueued(new GreenScoresEnqueued(2));
+        dispatcher.onEnqueued(new GreenScoresEnqueued(5));
+
+        verify(outboxRepository, after(500).times(1)).findDueBatchIds(any(Instant.class), any(Limit.class));
+    }
+
+    /**
+     * TEST CASE 6: A full batch is dispatched without waiting for the window to close
+     */
+    @Test
+    @DisplayName("OB-6: Reaching batch-size dispatches immediately")
+    void testOnEnqueued_FullBatch_ShouldDispatchWithoutWaiting() {
+        GreenScoreOutboxDispatcher slowWindow = dispatcher(Duration.ofMinutes(1));
+
+        slowWindow.onEnqueued(new GreenScoresEnqueued(300));
+        slowWindow.onEnqueued(new GreenScoresEnqueued(200));
+
+        verify(outboxRepository, timeout(2000).times(1)).findDueBatchIds(any(Instant.class), any(Limit.class));
+        slowWindow.cancelPendingDispatch();
+    }
+
+    private void dueBatchRespondingWith(int status) {
+        when(outboxRepository.findByBatchIdIsNullOrderByIdAsc(any(Limit.class))).thenReturn(List.of());
+        when(outboxRepository.findDueBatchIds(any(Instant.class), any(Limit.class))).thenReturn(List.of(BATCH_ID));
+        when(outboxRepository.findByBatchId(BATCH_ID)).thenReturn(List.of(entry(100L, 5, 0)));
+        WebClientResponseException response = WebClientResponseException.create(status, "status " + status, null,
+                "{\"error\":\"size must be between 1 and 1000\"}".getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8);
+        when(usersClient.applyGreenScoreBatch(eq(BATCH_ID), anyList()))
+                .thenReturn(Mono.error(new GreenScoreUpdateException("Failed to update user scores", response)));
+    }
+
+    /**
+     * TEST CASE 7: A batch users-service rejects as invalid is parked instead of retried forever
+     */
+    @Test
+    @DisplayName("OB-7: 4xx rejection parks the batch as a dead letter without retry or delete")
+    void testDispatch_ClientError_ShouldParkBatch() {
+        dueBatchRespondingWith(400);
+
+        dispatcher.dispatch();
+
+        ArgumentCaptor<String> error = ArgumentCaptor.forClass(String.class);
+        verify(outboxRepository).park(eq(BATCH_ID), any(Instant.class), error.capture());
+        assertTrue(error.getValue().startsWith("400 "));
+        assertTrue(error.getValue().contains("size must be between"));
+        verify(outboxRepository, never()).scheduleRetry(anyString(), any(Instant.class));
+        verify(outboxRepository, never()).deleteByBatchId(anyString());
+    }
+
+    /**
+     * TEST CASE 8: Throttling, timeouts and server errors stay retryable
+     */
+    @Test
+    @DisplayName("OB-8: 408, 429 and 5xx responses are retried with backoff, not parked")
+    void testDispatch_TransientErrors_ShouldRetry() {
+        for (int status : new int[]{408, 429, 503}) {
+            reset(outboxRepository, usersClient);
+            dueBatchRespondingWith(status);
+
+            dispatcher.dispatch();
+
+            verify(outboxRepository).scheduleRetry(eq(BATCH_ID), any(Instant.class));
+            verify(outboxRepository, never()).park(anyString(), any(Instant.class), anyString());
+        }
+    }
+
+    /**
+     * TEST CASE 9: A batch size users-service would always reject fails at startup
+     */
+    @Test
+    @DisplayName("OB-9: batch-size outside 1..1000 is rejected at construction")
+    void testConstructor_BatchSizeAboveEndpointLimit_ShouldFail() {
+        for (int batchSize : new int[]{0, 1001}) {
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () ->
+                    new GreenScoreOutboxDispatcher(outboxRepository, usersClient, transactionTemplate,
+                            new SimpleMeterRegistry(), batchSize, 20, Duration.ofSeconds(5), Duration.ofSeconds(1),
+                            Duration.ofMinutes(5), Duration.ofMillis(100)));
+            assertTrue(e.getMessage().contains("batch-size"));
+        }
+        assertDoesNotThrow(() -> new GreenScoreOutboxDispatcher(outboxRepository, usersClient, transactionTemplate,
+                new SimpleMeterRegistry(), 1000, 20, Duration.ofSeconds(5), Duration.ofSeconds(1),
+                Duration.ofMinutes(5), Duration.ofMillis(100)));
+    }
+}
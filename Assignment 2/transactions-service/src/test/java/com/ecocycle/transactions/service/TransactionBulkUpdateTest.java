@@ -0,0 +1,171 @@
+package com.ecocycle.transactions.service;
+
+import com.ecocycle.transactions.dto.BulkStatusUpdateRequest;
+import com.ecocycle.transactions.dto.BulkStatusUpdateResult;
+import com.ecocycle.transactions.dto.BulkStatusUpdateResult.Outcome;
+import com.ecocycle.transactions.dto.BulkStatusUpdateResult.Result;
+import com.ecocycle.transactions.model.GreenScoreOutboxEntry;
+import com.ecocycle.transactions.model.Transaction;
+import com.ecocycle.transactions.model.TransactionStatus;
+import com.ecocycle.transactions.outbox.GreenScoresEnqueued;
+import com.ecocycle.transactions.repository.GreenScoreOutboxRepository;
+import com.ecocycle.transactions.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for TransactionService.updateStatuses() bulk status changes.
+ *
+ * The repository mocks stand in for the set-based conditional UPDATE: every ID below 100
+ * is CONFIRMED, IDs from 100 are CANCELLED, and IDs from 1000 do not exist.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TransactionService.updateStatuses() Tests")
+class TransactionBulkUpdateTest {
+
+    @Mock
+    private TransactionRepository repository;
+
+    @Mock
+    private GreenScoreOutboxRepository outboxRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Captor
+    private ArgumentCaptor<Iterable<GreenScoreOutboxEntry>> outboxCaptor;
+
+    @InjectMocks
+    private TransactionService transactionService;
+
+    @BeforeEach
+    void setUp() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        lenient().when(repository.compareAndSetStatuses(anyCollection(), anyCollection(), any(), any(Instant.class)))
+                .thenAnswer(invocation -> {
+                    Collection<Long> ids = invocation.getArgument(0);
+                    TransactionStatus next = TransactionStatus.valueOf(invocation.getArgument(2));
+                    return ids.stream().filter(id -> id < 100).map(id -> row(id, next)).toList();
+                });
+        lenient().when(repository.findAllById(anyList())).thenAnswer(invocation -> {
+            List<Long> ids = invocation.getArgument(0);
+            return ids.stream().filter(id -> id < 1000).map(id -> row(id, TransactionStatus.CANCELLED)).toList();
+        });
+    }
+
+    // Buyer is id % 2, seller is 10 + id % 3
+    private static Transaction row(long id, TransactionStatus status) {
+        Instant now = Instant.now();
+        return new Transaction(id, 1L, id % 2, 10 + id % 3, status, BigDecimal.TEN, now, now);
+    }
+
+    /**
+     * BULK-1: Outcomes come back once per distinct ID, in request order, classified as
+     * updated, rejected (with the unchanged current status) or not found.
+     */
+    @Test
+    @DisplayName("BULK-1: Mixed IDs - per-ID outcomes in request order, duplicates collapsed")
+    void testUpdateStatuses_MixedIds_ShouldReportEachOutcome() {
+        BulkStatusUpdateResult result = transactionService.updateStatuses(
+                new BulkStatusUpdateRequest(List.of(5L, 150L, 5L, 2000L, 7L), TransactionStatus.CANCELLED)).block();
+
+        assertNotNull(result);
+        assertEquals(List.of(
+                new Outcome(5L, Result.UPDATED, TransactionStatus.CANCELLED),
+                new Outcome(150L, Result.REJECTED, TransactionStatus.CANCELLED),
+                new Outcome(2000L, Result.NOT_FOUND, null),
+                new Outcome(7L, Result.UPDATED, TransactionStatus.CANCELLED)), result.outcomes());
+        assertEquals(2, result.updated());
+        assertEquals(1, result.rejected());
+        assertEquals(1, result.notFound());
+        verify(repository).compareAndSetStatuses(eq(List.of(5L, 150L, 2000L, 7L)), eq(List.of("PENDING", "CONFIRMED")),
+                eq("CANCELLED"), any(Instant.class));
+        verifyNoInteractions(outboxRepository);
+    }
+
+    /**
+     * BULK-2: Completing many transactions writes one outbox entry per user, holding the
+     * sum of everything the chunk earned them.
+     */
+    @Test
+    @DisplayName("BULK-2: COMPLETED - green score increments aggregated per user in one outbox write")
+    void testUpdateStatuses_Completed_ShouldAggregateOutboxEntries() {
+        transactionService.updateStatuses(
+                new BulkStatusUpdateRequest(List.of(1L, 2L, 3L, 4L, 5L, 6L, 150L), TransactionStatus.COMPLETED)).block();
+
+        verify(outboxRepository, times(1)).saveAll(outboxCaptor.capture());
+        Map<Long, Integer> deltas = new TreeMap<>();
+        for (GreenScoreOutboxEntry entry : outboxCaptor.getValue()) {
+            assertNull(entry.getTransactionId());
+            assertNull(deltas.put(entry.getUserId(), entry.getDelta()), "one entry per user");
+        }
+        // buyers 0 and 1 each bought 3; sellers 10, 11 and 12 each sold 2
+        assertEquals(Map.of(0L, 15, 1L, 15, 10L, 20, 11L, 20, 12L, 20), deltas);
+        verify(eventPublisher).publishEvent(new GreenScoresEnqueued(5));
+    }
+
+    /**
+     * BULK-3: Large requests are split into bounded chunks, each in its own DB transaction
+     * with a single UPDATE statement.
+     */
+    @Test
+    @DisplayName("BULK-3: 1200 IDs - three chunks, one UPDATE and one DB transaction each")
+    void testUpdateStatuses_LargeRequest_ShouldChunk() {
+        List<Long> ids = new ArrayList<>(LongStream.range(0, 1200).boxed().toList());
+
+        BulkStatusUpdateResult result = transactionService.updateStatuses(
+                new BulkStatusUpdateRequest(ids, TransactionStatus.CONFIRMED)).block();
+
+        assertNotNull(result);
+        assertEquals(1200, result.outcomes().size());
+        assertEquals(ids, result.outcomes().stream().map(Outcome::id).toList());
+        verify(transactionTemplate, times(3)).execute(any());
+        verify(repository, times(3)).compareAndSetStatuses(anyCollection(), eq(List.of("PENDING")), eq("CONFIRMED"),
+                any(Instant.class));
+    }
+
+    /**
+     * BULK-4: A target that can never be entered issues no UPDATE; every existing ID is rejected.
+     */
+    @Test
+    @DisplayName("BULK-4: Target PENDING - no UPDATE issued, existing IDs rejected")
+    void testUpdateStatuses_NoPredecessors_ShouldRejectWithoutUpdate() {
+        BulkStatusUpdateResult result = transactionService.updateStatuses(
+                new BulkStatusUpdateRequest(List.of(5L, 2000L), TransactionStatus.PENDING)).block();
+
+        assertNotNull(result);
+        assertEquals(1, result.rejected());
+        assertEquals(1, result.notFound());
+        verify(repository, never()).compareAndSetStatuses(anyCollection(), anyCollection(), any(), any());
+    }
+}
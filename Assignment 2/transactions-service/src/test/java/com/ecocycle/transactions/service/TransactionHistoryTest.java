@@ -0,0 +1,121 @@
+package com.ecocycle.transactions.service;
+
+import com.ecocycle.transactions.dto.TransactionCursor;
+import com.ecocycle.transactions.dto.TransactionDto;
+import com.ecocycle.transactions.dto.TransactionPage;
+import com.ecocycle.transactions.model.Transaction;
+import com.ecocycle.transactions.model.TransactionStatus;
+import com.ecocycle.transactions.repository.TransactionRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for TransactionService.list() keyset pagination.
+ *
+ * The repository returns up to {@code limit + 1} rows; the extra row only signals that
+ * another page exists and is never returned to the caller.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TransactionService.list() Tests")
+class TransactionHistoryTest {
+
+    private static final Instant T0 = Instant.parse("2025-03-01T10:00:00Z");
+
+    @Mock
+    private TransactionRepository repository;
+
+    @InjectMocks
+    private TransactionService transactionService;
+
+    private static Transaction row(long id, Instant createdAt) {
+        return new Transaction(id, 10L, 7L, 8L, TransactionStatus.COMPLETED, BigDecimal.TEN, createdAt, createdAt);
+    }
+
+    /**
+     * HIST-1: A full page plus a look-ahead row is trimmed, and the cursor points at the
+     * last row actually returned.
+     */
+    @Test
+    @DisplayName("HIST-1: Look-ahead row is dropped and becomes the next page's starting point")
+    void testList_MoreRowsThanLimit_ShouldTrimAndReturnCursor() {
+        when(repository.findBuyerPage(7L, TransactionCursor.START.createdAt(), TransactionCursor.START.id(), Limit.of(3)))
+                .thenReturn(List.of(row(5, T0), row(4, T0), row(3, T0.minusSeconds(1))));
+
+        TransactionPage page = transactionService.list(Optional.of(7L), Optional.empty(), Optional.empty(),
+                Optional.empty(), 2);
+
+        assertEquals(List.of(5L, 4L), page.items().stream().map(TransactionDto::id).toList());
+        assertEquals(new TransactionCursor(T0, 4L), TransactionCursor.decode(page.nextCursor()));
+    }
+
+    /**
+     * HIST-2: A short page is the last one.
+     */
+    @Test
+    @DisplayName("HIST-2: Fewer rows than the limit - no next cursor")
+    void testList_FewerRowsThanLimit_ShouldHaveNoCursor() {
+        TransactionCursor cursor = new TransactionCursor(T0, 4L);
+        when(repository.findSellerPage(8L, TransactionStatus.COMPLETED, T0, 4L, Limit.of(51)))
+                .thenReturn(List.of(row(3, T0.minusSeconds(1))));
+
+        TransactionPage page = transactionService.list(Optional.empty(), Optional.of(8L),
+                Optional.of(TransactionStatus.COMPLETED), Optional.of(cursor), 50);
+
+        assertEquals(1, page.items().size());
+        assertNull(page.nextCursor());
+    }
+
+    /**
+     * HIST-3: Status alone pages through every transaction in that status.
+     */
+    @Test
+    @DisplayName("HIST-3: Status-only filter uses the status keyset query")
+    void testList_StatusOnly_ShouldUseStatusQuery() {
+        when(repository.findStatusPage(eq(TransactionStatus.PENDING), any(), any(), any())).thenReturn(List.of());
+
+        TransactionPage page = transactionService.list(Optional.empty(), Optional.empty(),
+                Optional.of(TransactionStatus.PENDING), Optional.empty(), 50);
+
+        assertTrue(page.items().isEmpty());
+        verify(repository).findStatusPage(TransactionStatus.PENDING, TransactionCursor.START.createdAt(),
+                TransactionCursor.START.id(), Limit.of(51));
+    }
+
+    /**
+     * HIST-4: Unbounded or contradictory filters are rejected before any query runs.
+     */
+    @Test
+    @DisplayName("HIST-4: No filter, or both buyer and seller - should throw IllegalArgumentException")
+    void testList_InvalidFilters_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> transactionService.list(
+                Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(), 50));
+        assertThrows(IllegalArgumentException.class, () -> transactionService.list(
+                Optional.of(7L), Optional.of(8L), Optional.empty(), Optional.empty(), 50));
+        verifyNoInteractions(repository);
+    }
+
+    /**
+     * HIST-5: Cursors survive the encode/decode round trip and reject foreign input.
+     */
+    @Test
+    @DisplayName("HIST-5: Cursor round trip, malformed cursor rejected")
+    void testCursor_RoundTrip_AndMalformed() {
+        TransactionCursor cursor = new TransactionCursor(Instant.parse("2025-03-01T10:00:00.123456Z"), 42L);
+        assertEquals(cursor, TransactionCursor.decode(cursor.encode()));
+        assertThrows(IllegalArgumentException.class, () -> TransactionCursor.decode("zzz"));
+    }
+}
@@ -0,0 +1,134 @@
+package com.ecocycle.transactions.service;
+
+import com.ecocycle.transactions.cache.ListingSnapshotCache;
+import com.ecocycle.transactions.client.MarketplaceClient;
+import com.ecocycle.transactions.client.OutboundHttpClients;
+import com.ecocycle.transactions.dto.CreateOfferRequest;
+import com.ecocycle.transactions.dto.TransactionDto;
+import com.ecocycle.transactions.model.Transaction;
+import com.ecocycle.transactions.repository.GreenScoreOutboxRepository;
+import com.ecocycle.transactions.repository.TransactionRepository;
+import com.sun.net.httpserver.HttpServer;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Flux;
+
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Load test for the non-blocking offer pipeline.
+ *
+ * A local stub stands in for marketplace-service and answers every listing lookup after
+ * a fixed delay. All offers are issued from the single test thread; with the old blocking
+ * client that thread could complete at most one offer per round trip.
+ */
+@DisplayName("TransactionService.createOffer() Load Test")
+class TransactionServiceLoadTest {
+
+    private static final long MARKETPLACE_LATENCY_MS = 250;
+    // More than the default Reactor Netty pool (16 connections + 32 pending acquires) would admit
+    private static final int CONCURRENT_OFFERS = 128;
+
+    private HttpServer marketplaceStub;
+    private ExecutorService stubExecutor;
+    private OutboundHttpClients http;
+    private TransactionService transactionService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        stubExecutor = Executors.newCachedThreadPool();
+        marketplaceStub = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        marketplaceStub.setExecutor(stubExecutor);
+        marketplaceStub.createContext("/listings/", exchange -> {
+            try {
+                Thread.sleep(MARKETPLACE_LATENCY_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            String id = exchange.getRequestURI().getPath().substring("/listings/".length());
+            byte[] body = ("{\"id\":" + id + ",\"title\":\"Bike\",\"type\":\"SALE\",\"price\":50,\"ownerId\":7}")
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        marketplaceStub.start();
+
+        TransactionRepository repository = mock(TransactionRepository.class);
+        AtomicLong ids = new AtomicLong();
+        when(repository.save(any(Transaction.class))).thenAnswer(invocation -> {
+            Transaction tx = invocation.getArgument(0);
+            tx.setId(ids.incrementAndGet());
+            return tx;
+        });
+
+        String baseUrl = "http://127.0.0.1:" + marketplaceStub.getAddress().getPort();
+        ListingSnapshotCache listingCache = new ListingSnapshotCache(
+                1000, Duration.ofSeconds(30), Duration.ofMinutes(10), new SimpleMeterRegistry());
+        http = new OutboundHttpClients(128, 1000, Duration.ofSeconds(5), Duration.ofSeconds(20),
+                Duration.ofMinutes(5), false, true, DataSize.ofMegabytes(1));
+        transactionService = new TransactionService(
+                repository,
+                new MarketplaceClient(baseUrl, Duration.ofSeconds(2), Duration.ofSeconds(10), http, listingCache,
+                        CircuitBreakerRegistry.ofDefaults(),
+                        BulkheadRegistry.of(BulkheadConfig.custom().maxConcurrentCalls(CONCURRENT_OFFERS).build())),
+                mock(GreenScoreOutboxRepository.class), mock(TransactionTemplate.class),
+                mock(ApplicationEventPublisher.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        http.close();
+        marketplaceStub.stop(0);
+        stubExecutor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("LOAD-1: Concurrent offers overlap marketplace latency instead of queueing behind it")
+    void testCreateOffer_InjectedMarketplaceLatency_ShouldNotSerializeOnCallerThread() {
+        // Warm-up: the first call pays for Netty, codec and connection pool initialisation
+        transactionService.createOffer(new CreateOfferRequest(0L, new BigDecimal("40.00")), 100L, "token").block();
+
+        long start = System.nanoTime();
+
+        List<TransactionDto> results = Flux.range(1, CONCURRENT_OFFERS)
+                .flatMap(i -> transactionService.createOffer(
+                        new CreateOfferRequest((long) i, new BigDecimal("40.00")), 100L, "token"))
+                .collectList()
+                .block();
+
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        double throughput = CONCURRENT_OFFERS * 1000.0 / Math.max(1, elapsedMs);
+        double blockingThroughput = 1000.0 / MARKETPLACE_LATENCY_MS;
+
+        assertNotNull(results);
+        assertEquals(CONCURRENT_OFFERS, results.size());
+        assertTrue(results.stream().allMatch(dto -> dto.sellerId() == 7L));
+        assertTrue(throughput > 4 * blockingThroughput,
+                "Expected overlapping round trips, got " + CONCURRENT_OFFERS + " offers in " + elapsedMs
+                        + " ms (" + throughput + " req/s; one blocking thread: " + blockingThroughput + " req/s)");
+    }
+}
@@ -1,26 +1,40 @@
 package com.ecocycle.transactions.service;
 
-import com.ecocycle.transactions.client.UsersClient;
 import com.ecocycle.transactions.dto.TransactionDto;
 import com.ecocycle.transactions.dto.UpdateTransactionStatusRequest;
-import com.ecocycle.transactions.exception.GreenScoreUpdateException;
+import com.ecocycle.transactions.exception.IllegalStatusTransitionException;
+import com.ecocycle.transactions.model.GreenScoreOutboxEntry;
 import com.ecocycle.transactions.model.Transaction;
 import com.ecocycle.transactions.model.TransactionStatus;
+import com.ecocycle.transactions.repository.GreenScoreOutboxRepository;
 import com.ecocycle.transactions.repository.TransactionRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -29,6 +43,11 @@ import static org.mockito.Mockito.*;
  * This test suite includes:
  * - 5 Black-Box Test Cases (Equivalence Class Partitioning)
  * - 5 White-Box Test Cases (Control Flow Testing)
+ *
+ * Each status change is one compare-and-set UPDATE guarded by the allowed predecessor
+ * statuses; the repository mock emulates that statement against {@code testTransaction}.
+ * Green score increments are written to the outbox in the same DB transaction as the
+ * status change; delivery to users-service is covered by GreenScoreOutboxDispatcher.
  */
 @ExtendWith(MockitoExtension.class)
 @DisplayName("TransactionService.updateStatus() Tests")
@@ -38,7 +57,16 @@ class TransactionServiceTest {
     private TransactionRepository repository;
 
     @Mock
-    private UsersClient usersClient;
+    private GreenScoreOutboxRepository outboxRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Captor
+    private ArgumentCaptor<Iterable<GreenScoreOutboxEntry>> outboxCaptor;
 
     @InjectMocks
     private TransactionService transactionService;
@@ -59,10 +87,44 @@ class TransactionServiceTest {
         testTransaction.setListingId(10L);
         testTransaction.setBuyerId(testBuyerId);
         testTransaction.setSellerId(testSellerId);
-        testTransaction.setStatus(TransactionStatus.PENDING);
+        testTransaction.setStatus(TransactionStatus.CONFIRMED);
         testTransaction.setAgreedPrice(new BigDecimal("50.00"));
         testTransaction.setCreatedAt(Instant.now());
         testTransaction.setUpdatedAt(Instant.now());
+
+        // Run the transaction callback inline, as a real TransactionTemplate would
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    /**
+     * Emulates the conditional UPDATE: the row changes only while its current status is one
+     * of the expected ones.
+     */
+    private void stubCompareAndSet() {
+        when(repository.compareAndSetStatus(eq(testTransactionId), anyCollection(), anyString(), any(Instant.class)))
+                .thenAnswer(invocation -> {
+                    Collection<String> expected = invocation.getArgument(1);
+                    if (!expected.contains(testTransaction.getStatus().name())) {
+                        return Optional.empty();
+                    }
+                    testTransaction.setStatus(TransactionStatus.valueOf(invocation.getArgument(2)));
+                    testTransaction.setUpdatedAt(invocation.getArgument(3));
+                    return Optional.of(testTransaction);
+                });
+    }
+
+    /**
+     * Returns the outbox entries passed to saveAll as (userId, delta) pairs.
+     */
+    private List<List<Long>> capturedOutboxEntries() {
+        verify(outboxRepository).saveAll(outboxCaptor.capture());
+        List<List<Long>> entries = new ArrayList<>();
+        for (GreenScoreOutboxEntry entry : outboxCaptor.getValue()) {
+            assertEquals(testTransactionId, entry.getTransactionId());
+            entries.add(List.of(entry.getUserId(), (long) entry.getDelta()));
+        }
+        return entries;
     }
 
     // ============================================================================
@@ -70,61 +132,58 @@ class TransactionServiceTest {
     // ============================================================================
 
     /**
-     * BLACK-BOX TEST CASE 1: Valid Transaction ID + COMPLETED Status
+     * BLACK-BOX TEST CASE 1: Valid Transaction ID + Legal COMPLETED Transition
      * 
      * Equivalence Class: Valid inputs
-     * - Valid transaction ID (exists in repository)
+     * - Valid transaction ID (exists, currently CONFIRMED)
      * - Valid status: COMPLETED
      * 
-     * Expected: Transaction status updated, green scores incremented, transaction saved
+     * Expected: Status updated by the single conditional UPDATE, green score increments enqueued
      */
     @Test
-    @DisplayName("BB-1: Update status to COMPLETED with valid transaction ID - should update scores")
-    void testUpdateStatus_ValidId_CompletedStatus_ShouldUpdateScores() {
+    @DisplayName("BB-1: Update CONFIRMED transaction to COMPLETED - should enqueue scores")
+    void testUpdateStatus_ValidId_CompletedStatus_ShouldEnqueueScores() {
         // Arrange
         UpdateTransactionStatusRequest request = new UpdateTransactionStatusRequest(TransactionStatus.COMPLETED);
-        when(repository.findById(testTransactionId)).thenReturn(Optional.of(testTransaction));
-        when(repository.save(any(Transaction.class))).thenAnswer(invocation -> invocation.getArgument(0));
-        doNothing().when(usersClient).incrementGreenScore(anyLong(), anyInt());
+        stubCompareAndSet();
 
         // Act
-        TransactionDto result = transactionService.updateStatus(testTransactionId, request);
+        TransactionDto result = transactionService.updateStatus(testTransactionId, request).block();
 
         // Assert
         assertNotNull(result);
         assertEquals(TransactionStatus.COMPLETED, result.status());
-        verify(repository, times(1)).findById(testTransactionId);
-        verify(usersClient, times(1)).incrementGreenScore(testBuyerId, 5);
-        verify(usersClient, times(1)).incrementGreenScore(testSellerId, 10);
-        verify(repository, times(1)).save(testTransaction);
+        verify(repository, times(1)).compareAndSetStatus(testTransactionId, List.of("CONFIRMED"), "COMPLETED",
+                testTransaction.getUpdatedAt());
+        assertEquals(List.of(List.of(testBuyerId, 5L), List.of(testSellerId, 10L)), capturedOutboxEntries());
+        verify(repository, never()).findById(any());
+        verify(repository, never()).save(any(Transaction.class));
     }
 
     /**
-     * BLACK-BOX TEST CASE 2: Valid Transaction ID + Non-COMPLETED Status
+     * BLACK-BOX TEST CASE 2: Valid Transaction ID + Legal Non-COMPLETED Transition
      * 
      * Equivalence Class: Valid inputs, different status
-     * - Valid transaction ID (exists in repository)
-     * - Valid status: PENDING, CONFIRMED, or CANCELLED (not COMPLETED)
+     * - Valid transaction ID (exists, currently PENDING)
+     * - Valid status: CONFIRMED
      * 
-     * Expected: Transaction status updated, green scores NOT incremented, transaction saved
+     * Expected: Status updated, nothing enqueued
      */
     @Test
-    @DisplayName("BB-2: Update status to PENDING with valid transaction ID - should not update scores")
-    void testUpdateStatus_ValidId_NonCompletedStatus_ShouldNotUpdateScores() {
+    @DisplayName("BB-2: Update PENDING transaction to CONFIRMED - should not enqueue scores")
+    void testUpdateStatus_ValidId_NonCompletedStatus_ShouldNotEnqueueScores() {
         // Arrange
-        UpdateTransactionStatusRequest request = new UpdateTransactionStatusRequest(TransactionStatus.PENDING);
-        when(repository.findById(testTransactionId)).thenReturn(Optional.of(testTransaction));
-        when(repository.save(any(Transaction.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        testTransaction.setStatus(TransactionStatus.PENDING);
+        UpdateTransactionStatusRequest request = new UpdateTransactionStatusRequest(TransactionStatus.CONFIRMED);
+        stubCompareAndSet();
 
         // Act
-        TransactionDto result = transactionService.updateStatus(testTransactionId, request);
+        TransactionDto result = transactionService.updateStatus(testTransactionId, request).block();
 
         // Assert
         assertNotNull(result);
-        assertEquals(TransactionStatus.PENDING, result.status());
-        verify(repository, times(1)).findById(testTransactionId);
-        verify(usersClient, never()).incrementGreenScore(anyLong(), anyInt());
-        verify(repository, times(1)).save(testTransaction);
+        assertEquals(TransactionStatus.CONFIRMED, result.status());
+        verify(outboxRepository, never()).saveAll(anyList());
     }
 
     /**
@@ -142,105 +201,81 @@ class TransactionServiceTest {
         // Arrange
         Long nonExistentId = 999L;
         UpdateTransactionStatusRequest request = new UpdateTransactionStatusRequest(TransactionStatus.COMPLETED);
+        when(repository.compareAndSetStatus(eq(nonExistentId), anyCollection(), anyString(), any(Instant.class)))
+                .thenReturn(Optional.empty());
         when(repository.findById(nonExistentId)).thenReturn(Optional.empty());
 
         // Act & Assert
         RuntimeException exception = assertThrows(RuntimeException.class, () -> {
-            transactionService.updateStatus(nonExistentId, request);
+            transactionService.updateStatus(nonExistentId, request).block();
         });
 
         assertEquals("Transaction not found", exception.getMessage());
-        verify(repository, times(1)).findById(nonExistentId);
-        verify(usersClient, never()).incrementGreenScore(anyLong(), anyInt());
-        verify(repository, never()).save(any(Transaction.class));
+        verify(outboxRepository, never()).saveAll(anyList());
     }
 
     /**
-     * BLACK-BOX TEST CASE 4: Valid Transaction ID + COMPLETED Status + UsersClient Exception
+     * BLACK-BOX TEST CASE 4: Completing an Already COMPLETED Transaction
      * 
-     * Equivalence Class: Valid inputs, external service failure
-     * - Valid transaction ID (exists in repository)
-     * - Valid status: COMPLETED
-     * - UsersClient throws exception when updating scores
+     * Equivalence Class: Invalid transition
+     * - Valid transaction ID (exists)
+     * - Status COMPLETED requested twice
      * 
-     * Expected: RuntimeException thrown with message about failed score update
+     * Expected: First request enqueues scores once, second is rejected and enqueues nothing
      */
     @Test
-    @DisplayName("BB-4: Update status to COMPLETED but UsersClient fails - should throw exception")
-    void testUpdateStatus_ValidId_CompletedStatus_UsersClientFails_ShouldThrowException() {
+    @DisplayName("BB-4: Complete the same transaction twice - second attempt should be rejected")
+    void testUpdateStatus_CompletedTwice_ShouldRejectSecondAttempt() {
         // Arrange
         UpdateTransactionStatusRequest request = new UpdateTransactionStatusRequest(TransactionStatus.COMPLETED);
+        stubCompareAndSet();
         when(repository.findById(testTransactionId)).thenReturn(Optional.of(testTransaction));
-        doThrow(new RuntimeException("Service unavailable")).when(usersClient).incrementGreenScore(testBuyerId, 5);
 
-        // Act & Assert
-        RuntimeException exception = assertThrows(RuntimeException.class, () -> {
-            transactionService.updateStatus(testTransactionId, request);
-        });
+        // Act
+        transactionService.updateStatus(testTransactionId, request).block();
+        IllegalStatusTransitionException exception = assertThrows(IllegalStatusTransitionException.class,
+                () -> transactionService.updateStatus(testTransactionId, request).block());
 
-        assertTrue(exception.getMessage().contains("Failed to update user scores"));
-        verify(repository, times(1)).findById(testTransactionId);
-        verify(usersClient, times(1)).incrementGreenScore(testBuyerId, 5);
-        verify(usersClient, never()).incrementGreenScore(testSellerId, 10);
-        verify(repository, never()).save(any(Transaction.class));
+        // Assert
+        assertEquals("Cannot change transaction status from COMPLETED to COMPLETED", exception.getMessage());
+        verify(outboxRepository, times(1)).saveAll(anyList());
     }
 
     /**
-     * BLACK-BOX TEST CASE 5: Valid Transaction ID + All Status Types (Boundary Testing)
+     * BLACK-BOX TEST CASE 5: All Status Pairs (Boundary Testing)
      * 
-     * Equivalence Class: Valid inputs, all enum values
-     * - Valid transaction ID (exists in repository)
-     * - All possible status values: PENDING, CONFIRMED, COMPLETED, CANCELLED
+     * Equivalence Class: Every (current, requested) combination of enum values
+     * - Legal: PENDING->CONFIRMED, PENDING->CANCELLED, CONFIRMED->COMPLETED, CONFIRMED->CANCELLED
+     * - Everything else is illegal
      * 
-     * Expected: Each status updates correctly, COMPLETED triggers score updates
+     * Expected: Legal pairs update the status, illegal pairs throw and leave it unchanged
      */
     @Test
-    @DisplayName("BB-5: Update status with all possible status values - boundary testing")
-    void testUpdateStatus_ValidId_AllStatusTypes_ShouldHandleAllStatuses() {
-        // Test PENDING
-        testTransaction.setStatus(TransactionStatus.PENDING);
-        UpdateTransactionStatusRequest requestPending = new UpdateTransactionStatusRequest(TransactionStatus.PENDING);
-        when(repository.findById(testTransactionId)).thenReturn(Optional.of(testTransaction));
-        when(repository.save(any(Transaction.class))).thenAnswer(invocation -> invocation.getArgument(0));
-        
-        TransactionDto resultPending = transactionService.updateStatus(testTransactionId, requestPending);
-        assertEquals(TransactionStatus.PENDING, resultPending.status());
-        verify(usersClient, never()).incrementGreenScore(anyLong(), anyInt());
-        reset(repository, usersClient);
-
-        // Test CONFIRMED
-        testTransaction.setStatus(TransactionStatus.CONFIRMED);
-        UpdateTransactionStatusRequest requestConfirmed = new UpdateTransactionStatusRequest(TransactionStatus.CONFIRMED);
-        when(repository.findById(testTransactionId)).thenReturn(Optional.of(testTransaction));
-        when(repository.save(any(Transaction.class))).thenAnswer(invocation -> invocation.getArgument(0));
-        
-        TransactionDto resultConfirmed = transactionService.updateStatus(testTransactionId, requestConfirmed);
-        assertEquals(TransactionStatus.CONFIRMED, resultConfirmed.status());
-        verify(usersClient, never()).incrementGreenScore(anyLong(), anyInt());
-        reset(repository, usersClient);
-
-        // Test CANCELLED
-        testTransaction.setStatus(TransactionStatus.CANCELLED);
-        UpdateTransactionStatusRequest requestCancelled = new UpdateTransactionStatusRequest(TransactionStatus.CANCELLED);
-        when(repository.findById(testTransactionId)).thenReturn(Optional.of(testTransaction));
-        when(repository.save(any(Transaction.class))).thenAnswer(invocation -> invocation.getArgument(0));
-        
-        TransactionDto resultCancelled = transactionService.updateStatus(testTransactionId, requestCancelled);
-        assertEquals(TransactionStatus.CANCELLED, resultCancelled.status());
-        verify(usersClient, never()).incrementGreenScore(anyLong(), anyInt());
-        reset(repository, usersClient);
-
-        // Test COMPLETED (should update scores)
-        testTransaction.setStatus(TransactionStatus.COMPLETED);
-        UpdateTransactionStatusRequest requestCompleted = new UpdateTransactionStatusRequest(TransactionStatus.COMPLETED);
+    @DisplayName("BB-5: Every current/requested status pair - only the legal transitions apply")
+    void testUpdateStatus_AllStatusPairs_ShouldOnlyApplyLegalTransitions() {
+        stubCompareAndSet();
         when(repository.findById(testTransactionId)).thenReturn(Optional.of(testTransaction));
-        when(repository.save(any(Transaction.class))).thenAnswer(invocation -> invocation.getArgument(0));
-        doNothing().when(usersClient).incrementGreenScore(anyLong(), anyInt());
-        
-        TransactionDto resultCompleted = transactionService.updateStatus(testTransactionId, requestCompleted);
-        assertEquals(TransactionStatus.COMPLETED, resultCompleted.status());
-        verify(usersClient, times(1)).incrementGreenScore(testBuyerId, 5);
-        verify(usersClient, times(1)).incrementGreenScore(testSellerId, 10);
+        List<List<TransactionStatus>> legal = List.of(
+                List.of(TransactionStatus.PENDING, TransactionStatus.CONFIRMED),
+                List.of(TransactionStatus.PENDING, TransactionStatus.CANCELLED),
+                List.of(TransactionStatus.CONFIRMED, TransactionStatus.COMPLETED),
+                List.of(TransactionStatus.CONFIRMED, TransactionStatus.CANCELLED));
+
+        for (TransactionStatus current : TransactionStatus.values()) {
+            for (TransactionStatus next : TransactionStatus.values()) {
+                testTransaction.setStatus(current);
+                UpdateTransactionStatusRequest request = new UpdateTransactionStatusRequest(next);
+                if (legal.contains(List.of(current, next))) {
+                    assertEquals(next, transactionService.updateStatus(testTransactionId, request).block().status());
+                } else {
+                    assertThrows(IllegalStatusTransitionException.class,
+                            () -> transactionService.updateStatus(testTransactionId, request).block(),
+                            current + " -> " + next);
+                    assertEquals(current, testTransaction.getStatus());
+                }
+            }
+        }
+        verify(outboxRepository, times(1)).saveAll(anyList());
     }
 
     // ============================================================================
@@ -248,181 +283,151 @@ class TransactionServiceTest {
     // ============================================================================
 
     /**
-     * WHITE-BOX TEST CASE 1: Path 1 - Transaction found, status != COMPLETED
+     * WHITE-BOX TEST CASE 1: Path 1 - Conditional update applied, status != COMPLETED
      * 
      * Control Flow Path: 
-     * 1. repo.findById(id) → returns Optional<Transaction>
-     * 2. tx.setStatus(req.status())
-     * 3. tx.setUpdatedAt(Instant.now())
-     * 4. if (tx.getStatus() == COMPLETED) → FALSE (skip block)
-     * 5. repo.save(tx)
-     * 6. return TransactionDto.from(tx)
+     * 1. next.allowedPredecessors() → non-empty
+     * 2. repo.compareAndSetStatus(...) → returns the updated row
+     * 3. if (next == COMPLETED) → FALSE (skip block)
+     * 4. return TransactionDto.from(tx)
      * 
-     * Coverage: Branch where status is not COMPLETED
+     * Coverage: Branch where status is not COMPLETED; no read-before-write and no save
      */
     @Test
-    @DisplayName("WB-1: Path - Transaction found, status CONFIRMED (not COMPLETED)")
+    @DisplayName("WB-1: Path - Update applied, status CANCELLED (not COMPLETED)")
     void testUpdateStatus_WhiteBox_Path1_StatusNotCompleted() {
         // Arrange
-        UpdateTransactionStatusRequest request = new UpdateTransactionStatusRequest(TransactionStatus.CONFIRMED);
-        when(repository.findById(testTransactionId)).thenReturn(Optional.of(testTransaction));
-        when(repository.save(any(Transaction.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        UpdateTransactionStatusRequest request = new UpdateTransactionStatusRequest(TransactionStatus.CANCELLED);
+        stubCompareAndSet();
 
         // Act
-        TransactionDto result = transactionService.updateStatus(testTransactionId, request);
+        TransactionDto result = transactionService.updateStatus(testTransactionId, request).block();
 
         // Assert - Verify path taken
         assertNotNull(result);
-        assertEquals(TransactionStatus.CONFIRMED, result.status());
-        verify(repository).findById(testTransactionId);
-        verify(repository).save(testTransaction);
-        verify(usersClient, never()).incrementGreenScore(anyLong(), anyInt());
+        assertEquals(TransactionStatus.CANCELLED, result.status());
+        verify(repository).compareAndSetStatus(eq(testTransactionId), eq(List.of("PENDING", "CONFIRMED")),
+                eq("CANCELLED"), any(Instant.class));
+        verifyNoMoreInteractions(repository);
+        verifyNoInteractions(outboxRepository);
     }
 
     /**
-     * WHITE-BOX TEST CASE 2: Path 2 - Transaction found, status == COMPLETED, scores updated successfully
+     * WHITE-BOX TEST CASE 2: Path 2 - Conditional update applied, status == COMPLETED
      * 
      * Control Flow Path:
-     * 1. repo.findById(id) → returns Optional<Transaction>
-     * 2. tx.setStatus(req.status()) → COMPLETED
-     * 3. tx.setUpdatedAt(Instant.now())
-     * 4. if (tx.getStatus() == COMPLETED) → TRUE (enter block)
-     * 5. try { users.incrementGreenScore(buyerId, 5) } → success
-     * 6. users.incrementGreenScore(sellerId, 10) → success
-     * 7. catch block → NOT executed
-     * 8. repo.save(tx)
-     * 9. return TransactionDto.from(tx)
+     * 1. repo.compareAndSetStatus(...) → returns the updated row
+     * 2. if (next == COMPLETED) → TRUE (enter block)
+     * 3. outbox.saveAll(buyer +5, seller +10) using the ids from the returned row
+     * 4. return TransactionDto.from(tx)
      * 
-     * Coverage: Branch where status is COMPLETED and scores update successfully
+     * Coverage: Branch where status is COMPLETED and the outbox write succeeds
      */
     @Test
-    @DisplayName("WB-2: Path - Transaction found, status COMPLETED, scores updated successfully")
-    void testUpdateStatus_WhiteBox_Path2_StatusCompleted_ScoresUpdated() {
+    @DisplayName("WB-2: Path - Update applied, status COMPLETED, scores enqueued")
+    void testUpdateStatus_WhiteBox_Path2_StatusCompleted_ScoresEnqueued() {
         // Arrange
         UpdateTransactionStatusRequest request = new UpdateTransactionStatusRequest(TransactionStatus.COMPLETED);
-        when(repository.findById(testTransactionId)).thenReturn(Optional.of(testTransaction));
-        when(repository.save(any(Transaction.class))).thenAnswer(invocation -> invocation.getArgument(0));
-        doNothing().when(usersClient).incrementGreenScore(anyLong(), anyInt());
+        stubCompareAndSet();
 
         // Act
-        TransactionDto result = transactionService.updateStatus(testTransactionId, request);
+        TransactionDto result = transactionService.updateStatus(testTransactionId, request).block();
 
         // Assert - Verify complete path taken
         assertNotNull(result);
         assertEquals(TransactionStatus.COMPLETED, result.status());
-        verify(repository).findById(testTransactionId);
-        verify(usersClient).incrementGreenScore(testBuyerId, 5);
-        verify(usersClient).incrementGreenScore(testSellerId, 10);
-        verify(repository).save(testTransaction);
+        assertEquals(List.of(List.of(testBuyerId, 5L), List.of(testSellerId, 10L)), capturedOutboxEntries());
+        verify(repository, never()).findById(any());
     }
 
     /**
-     * WHITE-BOX TEST CASE 3: Path 3 - Transaction found, status == COMPLETED, UsersClient throws exception
+     * WHITE-BOX TEST CASE 3: Path 3 - Status == COMPLETED, outbox write throws
      * 
      * Control Flow Path:
-     * 1. repo.findById(id) → returns Optional<Transaction>
-     * 2. tx.setStatus(req.status()) → COMPLETED
-     * 3. tx.setUpdatedAt(Instant.now())
-     * 4. if (tx.getStatus() == COMPLETED) → TRUE (enter block)
-     * 5. try { users.incrementGreenScore(buyerId, 5) } → throws Exception
-     * 6. catch (Exception e) → executed
-     * 7. throw new GreenScoreUpdateException("Failed to update user scores", e)
-     * 8. repo.save(tx) → NOT executed
-     * 9. return → NOT executed
+     * 1. repo.compareAndSetStatus(...) → returns the updated row
+     * 2. if (next == COMPLETED) → TRUE (enter block)
+     * 3. outbox.saveAll(...) → throws Exception (the DB transaction rolls the update back)
+     * 4. return → NOT executed
      * 
-     * Coverage: Exception handling path when UsersClient fails
+     * Coverage: Exception path when the outbox cannot be written
      */
     @Test
-    @DisplayName("WB-3: Path - Transaction found, status COMPLETED, UsersClient throws exception")
-    void testUpdateStatus_WhiteBox_Path3_StatusCompleted_UsersClientException() {
+    @DisplayName("WB-3: Path - Status COMPLETED, outbox write throws exception")
+    void testUpdateStatus_WhiteBox_Path3_StatusCompleted_OutboxException() {
         // Arrange
         UpdateTransactionStatusRequest request = new UpdateTransactionStatusRequest(TransactionStatus.COMPLETED);
-        when(repository.findById(testTransactionId)).thenReturn(Optional.of(testTransaction));
-        RuntimeException clientException = new RuntimeException("Network error");
-        doThrow(clientException).when(usersClient).incrementGreenScore(testBuyerId, 5);
+        stubCompareAndSet();
+        RuntimeException outboxException = new RuntimeException("Database error");
+        when(outboxRepository.saveAll(anyList())).thenThrow(outboxException);
 
         // Act & Assert
-        GreenScoreUpdateException exception = assertThrows(GreenScoreUpdateException.class, () -> {
-            transactionService.updateStatus(testTransactionId, request);
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> {
+            transactionService.updateStatus(testTransactionId, request).block();
         });
 
         // Verify exception path
-        assertEquals("Failed to update user scores", exception.getMessage());
-        assertEquals(clientException, exception.getCause());
-        verify(repository).findById(testTransactionId);
-        verify(usersClient).incrementGreenScore(testBuyerId, 5);
-        verify(usersClient, never()).incrementGreenScore(testSellerId, 10);
-        verify(repository, never()).save(any(Transaction.class));
+        assertSame(outboxException, exception);
+        verify(outboxRepository).saveAll(anyList());
     }
 
     /**
-     * WHITE-BOX TEST CASE 4: Path 4 - Transaction not found
+     * WHITE-BOX TEST CASE 4: Path 4 - Conditional update matches no row, transaction exists
      * 
      * Control Flow Path:
-     * 1. repo.findById(id) → returns Optional.empty()
-     * 2. .orElseThrow(() -> new RuntimeException("Transaction not found")) → throws exception
-     * 3. Rest of method → NOT executed
+     * 1. repo.compareAndSetStatus(...) → returns Optional.empty() (status already moved on)
+     * 2. rejectedTransition → repo.findById(id) → returns the transaction
+     * 3. throw IllegalStatusTransitionException(current, next)
      * 
-     * Coverage: Early exit path when transaction doesn't exist
+     * Coverage: Lost race / illegal transition; the read happens only on this failure path
      */
     @Test
-    @DisplayName("WB-4: Path - Transaction not found, early exception")
-    void testUpdateStatus_WhiteBox_Path4_TransactionNotFound() {
+    @DisplayName("WB-4: Path - Update matches no row, transaction exists, transition rejected")
+    void testUpdateStatus_WhiteBox_Path4_StatusMismatch_Rejected() {
         // Arrange
-        Long nonExistentId = 999L;
+        testTransaction.setStatus(TransactionStatus.CANCELLED);
         UpdateTransactionStatusRequest request = new UpdateTransactionStatusRequest(TransactionStatus.COMPLETED);
-        when(repository.findById(nonExistentId)).thenReturn(Optional.empty());
+        stubCompareAndSet();
+        when(repository.findById(testTransactionId)).thenReturn(Optional.of(testTransaction));
 
         // Act & Assert
-        RuntimeException exception = assertThrows(RuntimeException.class, () -> {
-            transactionService.updateStatus(nonExistentId, request);
+        IllegalStatusTransitionException exception = assertThrows(IllegalStatusTransitionException.class, () -> {
+            transactionService.updateStatus(testTransactionId, request).block();
         });
 
-        // Verify early exit path
-        assertEquals("Transaction not found", exception.getMessage());
-        verify(repository).findById(nonExistentId);
-        verify(usersClient, never()).incrementGreenScore(anyLong(), anyInt());
-        verify(repository, never()).save(any(Transaction.class));
+        // Verify rejection path
+        assertEquals("Cannot change transaction status from CANCELLED to COMPLETED", exception.getMessage());
+        InOrder inOrder = inOrder(transactionTemplate, repository);
+        inOrder.verify(transactionTemplate).execute(any());
+        inOrder.verify(repository).compareAndSetStatus(eq(testTransactionId), anyCollection(), eq("COMPLETED"),
+                any(Instant.class));
+        inOrder.verify(repository).findById(testTransactionId);
+        verifyNoInteractions(outboxRepository);
     }
 
     /**
-     * WHITE-BOX TEST CASE 5: Path 5 - Transaction found, status == COMPLETED, second score update fails
+     * WHITE-BOX TEST CASE 5: Path 5 - Target status has no allowed predecessors
      * 
      * Control Flow Path:
-     * 1. repo.findById(id) → returns Optional<Transaction>
-     * 2. tx.setStatus(req.status()) → COMPLETED
-     * 3. tx.setUpdatedAt(Instant.now())
-     * 4. if (tx.getStatus() == COMPLETED) → TRUE (enter block)
-     * 5. try { users.incrementGreenScore(buyerId, 5) } → success
-     * 6. users.incrementGreenScore(sellerId, 10) → throws Exception
-     * 7. catch (Exception e) → executed
-     * 8. throw new RuntimeException("Failed to update user scores: " + e.getMessage(), e)
-     * 9. repo.save(tx) → NOT executed
+     * 1. next.allowedPredecessors() → empty (PENDING can never be re-entered)
+     * 2. no UPDATE is issued
+     * 3. rejectedTransition → repo.findById(id) → throw IllegalStatusTransitionException
      * 
-     * Coverage: Exception handling when second score update fails
+     * Coverage: Early exit before any write
      */
     @Test
-    @DisplayName("WB-5: Path - Transaction found, status COMPLETED, second score update fails")
-    void testUpdateStatus_WhiteBox_Path5_StatusCompleted_SecondScoreUpdateFails() {
+    @DisplayName("WB-5: Path - Target PENDING has no predecessors, no update issued")
+    void testUpdateStatus_WhiteBox_Path5_NoPredecessors_NoUpdateIssued() {
         // Arrange
-        UpdateTransactionStatusRequest request = new UpdateTransactionStatusRequest(TransactionStatus.COMPLETED);
+        UpdateTransactionStatusRequest request = new UpdateTransactionStatusRequest(TransactionStatus.PENDING);
         when(repository.findById(testTransactionId)).thenReturn(Optional.of(testTransaction));
-        doNothing().when(usersClient).incrementGreenScore(testBuyerId, 5);
-        RuntimeException secondException = new RuntimeException("Database error");
-        doThrow(secondException).when(usersClient).incrementGreenScore(testSellerId, 10);
 
         // Act & Assert
-        GreenScoreUpdateException exception = assertThrows(GreenScoreUpdateException.class, () -> {
-            transactionService.updateStatus(testTransactionId, request);
+        assertThrows(IllegalStatusTransitionException.class, () -> {
+            transactionService.updateStatus(testTransactionId, request).block();
         });
 
-        // Verify exception path after first success
-        assertEquals("Failed to update user scores", exception.getMessage());
-        assertEquals(secondException, exception.getCause());
-        verify(repository).findById(testTransactionId);
-        verify(usersClient).incrementGreenScore(testBuyerId, 5);
-        verify(usersClient).incrementGreenScore(testSellerId, 10);
-        verify(repository, never()).save(any(Transaction.class));
+        // Verify no write was attempted
+        verify(repository, never()).compareAndSetStatus(any(), anyCollection(), anyString(), any());
+        verifyNoInteractions(outboxRepository);
     }
 }
-
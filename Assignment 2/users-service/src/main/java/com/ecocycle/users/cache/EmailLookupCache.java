@@ -0,0 +1,44 @@
+package com.ecocycle.users.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Size-bounded email-to-user-id cache in front of the unique email index, so repeated
+ * logins skip the database entirely.
+ * <p>
+ * Emails are never changed or freed once registered, so an entry cannot go wrong on this
+ * instance; the TTL only limits how long a row removed directly in the database keeps
+ * resolving. Unknown emails are not cached, so a new registration on another instance is
+ * visible immediately.
+ */
+@Component
+public class EmailLookupCache {
+
+    private final Cache<String, Long> cache;
+
+    public EmailLookupCache(@Value("${users.cache.email-lookup.max-size:100000}") long maxSize,
+                            @Value("${users.cache.email-lookup.ttl:1h}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * @param loader returns empty when no user has the email; misses are not cached
+     */
+    public Optional<Long> get(String email, Function<String, Optional<Long>> loader) {
+        return Optional.ofNullable(cache.get(email, key -> loader.apply(key).orElse(null)));
+    }
+
+    public void put(String email, Long userId) {
+        cache.put(email, userId);
+    }
+}
@@ -1,45 +1,40 @@
 package com.ecocycle.users.controller;
 
 import com.ecocycle.common.security.JwtUtil;
-import com.ecocycle.users.model.User;
-import com.ecocycle.users.repository.UserRepository;
-import lombok.RequiredArgsConstructor;
+import com.ecocycle.users.dto.CreateUserRequest;
+import com.ecocycle.users.dto.UserDto;
+import com.ecocycle.users.service.UserService;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
 @RequestMapping("/auth")
-@RequiredArgsConstructor
 public class AuthController {
 
-    private final UserRepository repo;
+    private final UserService service;
+    private final JwtUtil jwtUtil;
 
-    @Value("${jwt.secret}")
-    private String secret;
-
-    @Value("${jwt.expiration}")
-    private long expiration;
+    public AuthController(UserService service,
+                          @Value("${jwt.secret}") String secret,
+                          @Value("${jwt.expiration}") long expiration) {
+        this.service = service;
+        this.jwtUtil = new JwtUtil(secret, expiration);
+    }
 
     @PostMapping("/register")
     public ResponseEntity<String> register(@RequestParam String username,
                                            @RequestParam String email) {
-        User u = new User();
-        u.setUsername(username);
-        u.setEmail(email);
-        repo.save(u);
+        UserDto u = service.create(new CreateUserRequest(username, email));
 
-        String token = new JwtUtil(secret, expiration).generateToken(u.getId());
+        String token = jwtUtil.generateToken(u.id());
         return ResponseEntity.ok(token);
     }
 
     @PostMapping("/login")
     public ResponseEntity<String> login(@RequestParam String email) {
-        User u = repo.findAll().stream()
-                .filter(x -> x.getEmail().equals(email))
-                .findFirst()
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        String token = new JwtUtil(secret, expiration).generateToken(u.getId());
+        Long userId = service.findIdByEmail(email);
+        String token = jwtUtil.generateToken(userId);
         return ResponseEntity.ok(token);
     }
 }
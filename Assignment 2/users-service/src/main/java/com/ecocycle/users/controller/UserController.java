@@ -1,15 +1,36 @@
 package com.ecocycle.users.controller;
 
 import com.ecocycle.users.dto.CreateUserRequest;
+import com.ecocycle.users.dto.GreenScoreBatchResult;
+import com.ecocycle.users.dto.GreenScoreDelta;
+import com.ecocycle.users.dto.LeaderboardEntry;
+import com.ecocycle.users.dto.UserBatchDto;
 import com.ecocycle.users.dto.UserDto;
+import com.ecocycle.users.dto.UserPage;
 import com.ecocycle.users.service.UserService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/users")
@@ -17,24 +38,100 @@ import java.util.List;
 public class UserController {
 
     private final UserService service;
+    private final ObjectMapper mapper;
 
     @PostMapping
     public ResponseEntity<UserDto> create(@Valid @RequestBody CreateUserRequest req) {
         return ResponseEntity.status(HttpStatus.CREATED).body(service.create(req));
     }
 
+    /**
+     * Keyset-paginated listing in id order, e.g. {@code GET /users?cursor=1050&limit=50}.
+     */
     @GetMapping
-    public List<UserDto> list() {
-        return service.list();
+    public UserPage list(@RequestParam Optional<Long> cursor,
+                         @RequestParam(defaultValue = "50") @Min(1) @Max(500) int limit) {
+        return service.list(cursor, limit);
     }
 
+    /**
+     * Multi-get for service-to-service callers, e.g. {@code GET /users?ids=1,2,3}.
+     */
+    @GetMapping(params = "ids")
+    public UserBatchDto getAll(@RequestParam @Size(max = 500) List<Long> ids) {
+        return service.getAll(ids);
+    }
+
+    /**
+     * Bulk export as newline-delimited JSON, gzip-compressed when the client accepts it.
+     * Rows are written page by page as they are read, so heap use does not depend
+     * on the number of users.
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> export(@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false)
+                                                        String acceptEncoding) {
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        StreamingResponseBody body = out -> {
+            OutputStream target = gzip ? new GZIPOutputStream(out, 64 * 1024) : out;
+            try (JsonGenerator gen = mapper.getFactory().createGenerator(target)) {
+                service.export(dto -> writeLine(gen, dto));
+            }
+        };
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING).body(body);
+    }
+
+    /**
+     * Top recyclers, e.g. {@code GET /users/leaderboard?limit=10}; with {@code around=<userId>}
+     * the page is centred on that user instead. Served from memory, never sorted in the database.
+     */
+    @GetMapping("/leaderboard")
+    public List<LeaderboardEntry> leaderboard(@RequestParam(defaultValue = "10") @Min(1) @Max(100) int limit,
+                                              @RequestParam Optional<Long> around) {
+        return service.leaderboard(limit, around);
+    }
+
+    /**
+     * The ETag is the user's score version, checked before the user is loaded, so a client re-polling
+     * an unchanged user gets a 304 after a single-column read. It is read before the body, so it can
+     * only be older than the body, never newer. The score changes often, hence no-cache rather than a max-age.
+     */
     @GetMapping("/{id}")
-    public UserDto get(@PathVariable Long id) {
-        return service.get(id);
+    public ResponseEntity<UserDto> get(@PathVariable Long id, WebRequest webRequest) {
+        Optional<String> etag = service.version(id).map(v -> "\"" + v + "\"");
+        if (etag.isPresent() && webRequest.checkNotModified(etag.get())) {
+            return null;
+        }
+        UserDto dto = service.get(id);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().cacheControl(CacheControl.noCache().cachePrivate());
+        etag.ifPresent(response::eTag);
+        return response.body(dto);
+    }
+
+    /**
+     * Batch variant of the endpoint below, used by the transactions-service outbox dispatcher.
+     * A batch sent again with the same Idempotency-Key is acknowledged but not re-applied.
+     */
+    @PutMapping("/greenscore")
+    public GreenScoreBatchResult updateScores(@RequestBody @NotEmpty @Size(max = 1000) List<@Valid GreenScoreDelta> deltas,
+                                              @RequestHeader(value = "Idempotency-Key", required = false) String batchId) {
+        return service.incrementGreenScores(deltas, batchId);
     }
 
     @PutMapping("/{id}/greenscore")
     public UserDto updateScore(@PathVariable Long id, @RequestParam(defaultValue = "1") int delta) {
         return service.incrementGreenScore(id, delta);
     }
+
+    private void writeLine(JsonGenerator gen, Object value) {
+        try {
+            mapper.writeValue(gen, value);
+            gen.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
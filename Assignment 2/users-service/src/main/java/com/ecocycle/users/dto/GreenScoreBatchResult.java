@@ -0,0 +1,9 @@
+package com.ecocycle.users.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a batch green-score update: how many users were updated, and which ids do not exist.
+ * {@code duplicate} is true when the batch id had already been applied and nothing was changed.
+ */
+public record GreenScoreBatchResult(int updated, List<Long> unknownUserIds, boolean duplicate) {}
@@ -0,0 +1,5 @@
+package com.ecocycle.users.dto;
+
+import jakarta.validation.constraints.NotNull;
+
+public record GreenScoreDelta(@NotNull Long userId, int delta) {}
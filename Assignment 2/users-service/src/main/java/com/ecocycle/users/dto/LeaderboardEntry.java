@@ -0,0 +1,3 @@
+package com.ecocycle.users.dto;
+
+public record LeaderboardEntry(int rank, Long userId, String username, int greenScore) {}
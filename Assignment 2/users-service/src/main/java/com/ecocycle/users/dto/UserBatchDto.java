@@ -0,0 +1,9 @@
+package com.ecocycle.users.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result of a multi-get: every requested id is either a key of {@code users} or in {@code notFound}.
+ */
+public record UserBatchDto(Map<Long, UserDto> users, List<Long> notFound) {}
@@ -0,0 +1,9 @@
+package com.ecocycle.users.dto;
+
+import java.util.List;
+
+/**
+ * One page of users in id order; pass {@code nextCursor} back as {@code cursor} for the next page.
+ * It is null on the last page.
+ */
+public record UserPage(List<UserDto> items, Long nextCursor) {}
@@ -0,0 +1,186 @@
+package com.ecocycle.users.leaderboard;
+
+import com.ecocycle.users.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * In-memory ranking of every user by green score, highest first, ties broken by lower
+ * user ID. Filled from the table at startup (before the web server accepts requests) and
+ * then kept current by {@code UserService} on every score change, so a view never sorts
+ * the table. Rank lookups and updates are O(log n).
+ * <p>
+ * Only changes made through this instance are seen; another instance's changes show up
+ * here after a restart.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class Leaderboard implements SmartInitializingSingleton {
+
+    /**
+     * A user's place on the board; {@code rank} starts at 1.
+     */
+    public record Position(int rank, long userId, int greenScore) {}
+
+    private final UserRepository repo;
+    private final PlatformTransactionManager txManager;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final RankTree tree = new RankTree();
+    private final Map<Long, Integer> scores = new HashMap<>();
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        TransactionTemplate tx = new TransactionTemplate(txManager);
+        tx.setReadOnly(true);
+        lock.writeLock().lock();
+        try {
+            tree.clear();
+            scores.clear();
+            tx.executeWithoutResult(status -> {
+                try (Stream<Object[]> rows = repo.streamGreenScores()) {
+                    rows.forEach(row -> insert((Long) row[0], row[1] == null ? 0 : (Integer) row[1]));
+                }
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Ranked {} users in {} ms", scores.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Adds or replaces a user's score, e.g. for a new account.
+     */
+    public void put(Long userId, int greenScore) {
+        lock.writeLock().lock();
+        try {
+            Integer old = scores.get(userId);
+            if (old != null) {
+                tree.remove(userId, old);
+            }
+            insert(userId, greenScore);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Moves a ranked user by {@code delta}. A user not on the board yet is added with
+     * {@code scoreIfAbsent}, the caller's view of the full score.
+     */
+    public void add(Long userId, int delta, int scoreIfAbsent) {
+        lock.writeLock().lock();
+        try {
+            Integer old = scores.get(userId);
+            if (old == null) {
+                insert(userId, scoreIfAbsent);
+            } else {
+                tree.remove(userId, old);
+                insert(userId, old + delta);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Moves every listed user that is already ranked by its delta; unranked users are skipped.
+     */
+    public void addAll(Map<Long, Integer> deltas) {
+        lock.writeLock().lock();
+        try {
+            deltas.forEach((userId, delta) -> {
+                Integer old = scores.get(userId);
+                if (old != null) {
+                    tree.remove(userId, old);
+                    insert(userId, old + delta);
+                }
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return The user's 1-based rank, or empty if the user is not ranked
+     */
+    public OptionalInt rank(Long userId) {
+        lock.readLock().lock();
+        try {
+            Integer score = scores.get(userId);
+            return score == null ? OptionalInt.empty() : OptionalInt.of(tree.rank(userId, score) + 1);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Position> top(int limit) {
+        lock.readLock().lock();
+        try {
+            return slice(0, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Up to {@code limit} positions with the user as close to the middle as the ends of the
+     * board allow; empty if the user is not ranked.
+     */
+    public List<Position> around(Long userId, int limit) {
+        lock.readLock().lock();
+        try {
+            Integer score = scores.get(userId);
+            if (score == null) {
+                return List.of();
+            }
+            int rank = tree.rank(userId, score);
+            int from = Math.max(0, Math.min(rank - (limit - 1) / 2, tree.size() - limit));
+            return slice(from, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return tree.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void insert(Long userId, int score) {
+        scores.put(userId, score);
+        tree.insert(userId, score);
+    }
+
+    private List<Position> slice(int from, int limit) {
+        int to = Math.min(tree.size(), from + limit);
+        List<Position> page = new ArrayList<>(Math.max(0, to - from));
+        for (int i = from; i < to; i++) {
+            page.add(new Position(i + 1, tree.userIdAt(i), tree.scoreAt(i)));
+        }
+        return page;
+    }
+}
@@ -0,0 +1,168 @@
+package com.ecocycle.users.leaderboard;
+
+import java.util.SplittableRandom;
+
+/**
+ * Order-statistic treap of (score, userId) keys, sorted by score descending and then by
+ * userId ascending. Every node knows the size of its subtree, so inserting, removing,
+ * finding the rank of a key and finding the key at a rank all take O(log n) expected time.
+ * Not thread-safe; {@link Leaderboard} guards access.
+ */
+final class RankTree {
+
+    private static final class Node {
+        final long userId;
+        final int score;
+        final int priority;
+        int size = 1;
+        Node left;
+        Node right;
+
+        Node(long userId, int score, int priority) {
+            this.userId = userId;
+            this.score = score;
+            this.priority = priority;
+        }
+    }
+
+    private final SplittableRandom random = new SplittableRandom();
+    private Node root;
+    // results of split(), which returns two subtrees
+    private Node splitLeft;
+    private Node splitRight;
+
+    int size() {
+        return size(root);
+    }
+
+    void clear() {
+        root = null;
+    }
+
+    /**
+     * @param userId must not already be in the tree
+     */
+    void insert(long userId, int score) {
+        split(root, score, userId);
+        Node left = splitLeft;
+        Node right = splitRight;
+        root = merge(merge(left, new Node(userId, score, random.nextInt())), right);
+    }
+
+    void remove(long userId, int score) {
+        root = remove(root, userId, score);
+    }
+
+    /**
+     * @return The number of keys sorting before this one, i.e. its 0-based rank
+     */
+    int rank(long userId, int score) {
+        int rank = 0;
+        Node n = root;
+        while (n != null) {
+            if (precedes(n, score, userId)) {
+                rank += size(n.left) + 1;
+                n = n.right;
+            } else {
+                n = n.left;
+            }
+        }
+        return rank;
+    }
+
+    /**
+     * @param rank 0-based, less than {@link #size()}
+     * @return The user ID at that rank; pass it with {@link #scoreAt(int)} to read the score
+     */
+    long userIdAt(int rank) {
+        return nodeAt(rank).userId;
+    }
+
+    int scoreAt(int rank) {
+        return nodeAt(rank).score;
+    }
+
+    private Node nodeAt(int rank) {
+        Node n = root;
+        while (n != null) {
+            int leftSize = size(n.left);
+            if (rank < leftSize) {
+                n = n.left;
+            } else if (rank == leftSize) {
+                return n;
+            } else {
+                rank -= leftSize + 1;
+                n = n.right;
+            }
+        }
+        throw new IndexOutOfBoundsException("Rank out of range");
+    }
+
+    private static boolean precedes(Node n, int score, long userId) {
+        return n.score > score || (n.score == score && n.userId < userId);
+    }
+
+    private static int size(Node n) {
+        return n == null ? 0 : n.size;
+    }
+
+    private static void resize(Node n) {
+        n.size = 1 + size(n.left) + size(n.right);
+    }
+
+    /**
+     * Splits {@code n} into the keys sorting before (score, userId) and the rest.
+     */
+    private void split(Node n, int score, long userId) {
+        if (n == null) {
+            splitLeft = null;
+            splitRight = null;
+        } else if (precedes(n, score, userId)) {
+            split(n.right, score, userId);
+            n.right = splitLeft;
+            resize(n);
+            splitLeft = n;
+        } else {
+            split(n.left, score, userId);
+            n.left = splitRight;
+            resize(n);
+            splitRight = n;
+        }
+    }
+
+    /**
+     * Joins two treaps where every key of {@code a} sorts before every key of {@code b}.
+     */
+    private static Node merge(Node a, Node b) {
+        if (a == null) {
+            return b;
+        }
+        if (b == null) {
+            return a;
+        }
+        if (a.priority > b.priority) {
+            a.right = merge(a.right, b);
+            resize(a);
+            return a;
+        }
+        b.left = merge(a, b.left);
+        resize(b);
+        return b;
+    }
+
+    private static Node remove(Node n, long userId, int score) {
+        if (n == null) {
+            return null;
+        }
+        if (n.userId == userId) {
+            return merge(n.left, n.right);
+        }
+        if (precedes(n, score, userId)) {
+            n.right = remove(n.right, userId, score);
+        } else {
+            n.left = remove(n.left, userId, score);
+        }
+        resize(n);
+        return n;
+    }
+}
@@ -0,0 +1,24 @@
+package com.ecocycle.users.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Idempotency key of a green-score batch that has already been applied; a replay of the
+ * same batch is acknowledged without touching any score.
+ */
+@Entity
+@Table(name = "processed_green_score_batches")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProcessedGreenScoreBatch {
+
+    @Id
+    private String batchId;
+
+    private Instant processedAt = Instant.now();
+}
@@ -6,7 +6,10 @@ import lombok.*;
 import java.time.Instant;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+        // login resolves the user by email, and an email may belong to one account only
+        @Index(name = "uk_users_email", columnList = "email", unique = true)
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -23,5 +26,9 @@ public class User {
 
     private Integer greenScore = 0;
 
+    // bumped by every green score write; identifies the stored score for ETags
+    @Column(nullable = false, columnDefinition = "bigint not null default 0")
+    private long scoreVersion;
+
     private Instant memberSince = Instant.now();
 }
@@ -0,0 +1,16 @@
+package com.ecocycle.users.repository;
+
+import com.ecocycle.users.model.ProcessedGreenScoreBatch;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+
+public interface ProcessedGreenScoreBatchRepository extends JpaRepository<ProcessedGreenScoreBatch, String> {
+
+    @Modifying
+    @Query("delete from ProcessedGreenScoreBatch b where b.processedAt < :cutoff")
+    int deleteProcessedBefore(@Param("cutoff") Instant cutoff);
+}
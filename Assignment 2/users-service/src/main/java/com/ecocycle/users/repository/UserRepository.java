@@ -1,7 +1,55 @@
 package com.ecocycle.users.repository;
 
 import com.ecocycle.users.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface UserRepository extends JpaRepository<User, Long> {
+
+    /**
+     * Keyset page over the primary key: the next {@code limit} users with an id above {@code afterId}.
+     */
+    List<User> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    /**
+     * [id, greenScore] of every user as a server-side cursor, for rebuilding the leaderboard.
+     * Callers must be inside a read-only transaction and close the stream.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "10000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select u.id, u.greenScore from User u")
+    Stream<Object[]> streamGreenScores();
+
+    /**
+     * Single-row lookup through the unique email index; selects only the id.
+     */
+    @Query("select u.id from User u where u.email = :email")
+    Optional<Long> findIdByEmail(@Param("email") String email);
+
+    /**
+     * Increments in the database instead of read-modify-write, so concurrent updates are not lost.
+     *
+     * @return number of rows updated (0 if the user does not exist)
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update User u set u.greenScore = u.greenScore + :delta, u.scoreVersion = u.scoreVersion + 1 where u.id = :id")
+    int addGreenScore(@Param("id") Long id, @Param("delta") int delta);
+
+    /**
+     * The user's score version alone, without loading the row into the persistence context.
+     */
+    @Query("select u.scoreVersion from User u where u.id = :id")
+    Optional<Long> findScoreVersionById(@Param("id") Long id);
 }
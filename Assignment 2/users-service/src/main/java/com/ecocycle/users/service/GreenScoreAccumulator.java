@@ -0,0 +1,120 @@
+package com.ecocycle.users.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Write-behind buffer for green score increments. Callers add to a per-user
+ * {@link LongAdder}, so concurrent increments for the same user neither block each other
+ * nor touch the database; the scheduled flush applies every pending sum in one JDBC batch of
+ * {@code green_score = green_score + ?} updates.
+ * <p>
+ * A flush subtracts exactly what it wrote from each adder instead of resetting it, so
+ * increments racing with the flush are kept for the next one. If the batch fails nothing is
+ * subtracted and the same sums are retried. Pending increments are lost if the process dies
+ * before a flush; they are flushed on orderly shutdown.
+ * <p>
+ * A flush holds the write side of {@link #flushLock} from the update until the subtraction,
+ * and drops adders that drained to zero while no writer can be holding one. Increments and
+ * {@link #consistentRead} take the read side, so they never block each other, and a stored
+ * score loaded inside a consistent read plus {@link #pending} counts every flush exactly once.
+ */
+@Component
+public class GreenScoreAccumulator {
+
+    private static final String ADD_GREEN_SCORE_SQL = "update users set green_score = green_score + ?, score_version = score_version + 1 where id = ?";
+
+    private final ConcurrentHashMap<Long, LongAdder> pending = new ConcurrentHashMap<>();
+    private final ReadWriteLock flushLock = new ReentrantReadWriteLock();
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate txTemplate;
+
+    public GreenScoreAccumulator(JdbcTemplate jdbc, TransactionTemplate txTemplate) {
+        this.jdbc = jdbc;
+        this.txTemplate = txTemplate;
+    }
+
+    public void add(Long userId, int delta) {
+        flushLock.readLock().lock();
+        try {
+            pending.computeIfAbsent(userId, id -> new LongAdder()).add(delta);
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Runs {@code read} while no flush is between its update and its subtraction. Stored
+     * scores loaded by {@code read} and {@link #pending} values taken inside it therefore
+     * either both include a flush or both exclude it. {@code read} must query the database
+     * afresh rather than reuse entities loaded earlier, and should be short: a waiting flush
+     * holds up increments too.
+     *
+     * @param read Loads users and combines them with pending sums
+     * @return Whatever {@code read} returns
+     */
+    public <T> T consistentRead(Supplier<T> read) {
+        flushLock.readLock().lock();
+        try {
+            return read.get();
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Sum not yet written to the database; add it to the stored score to get the current one.
+     */
+    public long pending(Long userId) {
+        LongAdder adder = pending.get(userId);
+        return adder == null ? 0 : adder.sum();
+    }
+
+    /**
+     * Writes every non-zero pending sum in one transaction, rows in id order so a flush
+     * cannot deadlock with a concurrent batch update.
+     *
+     * @return The number of users whose score was written
+     */
+    @Scheduled(fixedDelayString = "${users.green-score.flush-interval:200ms}")
+    public synchronized int flush() {
+        flushLock.writeLock().lock();
+        try {
+            Map<Long, Long> snapshot = new TreeMap<>();
+            pending.forEach((userId, adder) -> {
+                long sum = adder.sum();
+                if (sum != 0) {
+                    snapshot.put(userId, sum);
+                }
+            });
+            if (!snapshot.isEmpty()) {
+                List<Object[]> args = new ArrayList<>(snapshot.size());
+                snapshot.forEach((userId, sum) -> args.add(new Object[]{sum, userId}));
+                txTemplate.executeWithoutResult(status -> jdbc.batchUpdate(ADD_GREEN_SCORE_SQL, args));
+                snapshot.forEach((userId, sum) -> pending.get(userId).add(-sum));
+            }
+            pending.values().removeIf(adder -> adder.sum() == 0);
+            return snapshot.size();
+        } finally {
+            flushLock.writeLock().unlock();
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+}
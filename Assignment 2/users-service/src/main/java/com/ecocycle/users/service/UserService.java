@@ -1,42 +1,312 @@
 package com.ecocycle.users.service;
 
+import com.ecocycle.users.cache.EmailLookupCache;
 import com.ecocycle.users.dto.CreateUserRequest;
+import com.ecocycle.users.dto.GreenScoreBatchResult;
+import com.ecocycle.users.dto.GreenScoreDelta;
+import com.ecocycle.users.dto.LeaderboardEntry;
+import com.ecocycle.users.dto.UserBatchDto;
 import com.ecocycle.users.dto.UserDto;
+import com.ecocycle.users.dto.UserPage;
+import com.ecocycle.users.leaderboard.Leaderboard;
+import com.ecocycle.users.model.ProcessedGreenScoreBatch;
 import com.ecocycle.users.model.User;
+import com.ecocycle.users.repository.ProcessedGreenScoreBatchRepository;
 import com.ecocycle.users.repository.UserRepository;
-import lombok.RequiredArgsConstructor;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
 
 @Service
-@RequiredArgsConstructor
 public class UserService {
 
+    // Users per export query; each page is read under the green-score flush lock
+    private static final int EXPORT_PAGE_SIZE = 500;
+
     private final UserRepository repo;
+    private final ProcessedGreenScoreBatchRepository processedBatches;
+    private final EmailLookupCache emailLookup;
+    private final GreenScoreAccumulator greenScores;
+    private final Leaderboard leaderboard;
+    private final EntityManager em;
+    private final Duration processedBatchRetention;
+
+    public UserService(UserRepository repo,
+                       ProcessedGreenScoreBatchRepository processedBatches,
+                       EmailLookupCache emailLookup,
+                       GreenScoreAccumulator greenScores,
+                       Leaderboard leaderboard,
+                       EntityManager em,
+                       @Value("${users.green-score.processed-batch-retention:7d}") Duration processedBatchRetention) {
+        this.repo = repo;
+        this.processedBatches = processedBatches;
+        this.emailLookup = emailLookup;
+        this.greenScores = greenScores;
+        this.leaderboard = leaderboard;
+        this.em = em;
+        this.processedBatchRetention = processedBatchRetention;
+    }
 
+    /**
+     * Registers a user. The email lookup cache and leaderboard are only updated once the
+     * insert has committed, so a rejected registration leaves both untouched.
+     *
+     * @throws ResponseStatusException 409 when the email already belongs to another account
+     */
     public UserDto create(CreateUserRequest req) {
         User u = new User();
         u.setUsername(req.username());
         u.setEmail(req.email());
         u.setVerifier(false);
         u.setGreenScore(0);
-        return UserDto.from(repo.save(u));
+        User saved;
+        try {
+            saved = repo.save(u);
+        } catch (DataIntegrityViolationException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Email already registered", e);
+        }
+        if (saved.getEmail() != null) {
+            emailLookup.put(saved.getEmail(), saved.getId());
+        }
+        leaderboard.put(saved.getId(), saved.getGreenScore());
+        return UserDto.from(saved);
+    }
+
+    /**
+     * Resolves a login email to a user id from the cache, falling back to the unique email index.
+     */
+    public Long findIdByEmail(String email) {
+        return emailLookup.get(email, repo::findIdByEmail)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+    }
+
+    /**
+     * Users in id order, starting after {@code cursor} (from the start if absent).
+     * One extra row is fetched to tell whether another page follows.
+     */
+    public UserPage list(Optional<Long> cursor, int limit) {
+        List<UserDto> rows = page(cursor.orElse(0L), limit + 1);
+        boolean more = rows.size() > limit;
+        List<UserDto> items = more ? rows.subList(0, limit) : rows;
+        return new UserPage(items, more ? items.get(items.size() - 1).id() : null);
+    }
+
+    /**
+     * The next {@code limit} users after {@code afterId}, scores read consistently with pending increments.
+     * Refactoring: Extract Method - Removes Duplicate Code smell.
+     *
+     * @param afterId Exclusive lower bound on the id
+     * @param limit Maximum number of users
+     * @return The users in id order
+     */
+    private List<UserDto> page(long afterId, int limit) {
+        return greenScores.consistentRead(() -> repo.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(limit))
+                .stream().map(this::toDto).toList());
+    }
+
+    /**
+     * Multi-get with one IN query; duplicate ids are looked up once.
+     */
+    public UserBatchDto getAll(Collection<Long> ids) {
+        Set<Long> unique = new LinkedHashSet<>(ids);
+        Map<Long, UserDto> found = greenScores.consistentRead(() -> {
+            Map<Long, UserDto> loaded = new HashMap<>();
+            for (User u : repo.findAllById(unique)) {
+                loaded.put(u.getId(), toDto(u));
+            }
+            return loaded;
+        });
+        Map<Long, UserDto> ordered = new LinkedHashMap<>();
+        List<Long> notFound = new ArrayList<>();
+        for (Long id : unique) {
+            UserDto dto = found.get(id);
+            if (dto == null) {
+                notFound.add(id);
+            } else {
+                ordered.put(id, dto);
+            }
+        }
+        return new UserBatchDto(ordered, notFound);
+    }
+
+    /**
+     * Pushes every user to {@code sink} in id order, one keyset page at a time. Pages are
+     * short point-in-time reads, so scores stay consistent with pending increments without
+     * holding up flushes for the whole export; the persistence context is cleared per page.
+     */
+    public void export(Consumer<UserDto> sink) {
+        long afterId = 0;
+        List<UserDto> rows;
+        do {
+            rows = page(afterId, EXPORT_PAGE_SIZE);
+            em.clear();
+            rows.forEach(sink);
+            if (!rows.isEmpty()) {
+                afterId = rows.get(rows.size() - 1).id();
+            }
+        } while (rows.size() == EXPORT_PAGE_SIZE);
     }
 
-    public List<UserDto> list() {
-        return repo.findAll().stream().map(UserDto::from).toList();
+    /**
+     * Validator for {@link #get}. Username, email and the verifier flag never change after
+     * registration, so the DTO only changes with the score: the stored score is identified by
+     * its persisted version, and this instance adds its pending increments on top. Both are read
+     * together under the flush lock with one single-column query, so the tag holds across
+     * instances and restarts. Empty for unknown users.
+     */
+    public Optional<String> version(Long id) {
+        return greenScores.consistentRead(() -> repo.findScoreVersionById(id)
+                .map(v -> v + "-" + greenScores.pending(id)));
     }
 
     public UserDto get(Long id) {
-        return repo.findById(id).map(UserDto::from)
+        return greenScores.consistentRead(() -> repo.findById(id).map(this::toDto))
                 .orElseThrow(() -> new RuntimeException("User not found"));
     }
 
-    // this will be called by Transactions later
+    /**
+     * Builds the DTO with increments that are accepted but not yet flushed included in the score.
+     * Call only inside {@link GreenScoreAccumulator#consistentRead} with a freshly loaded user.
+     * Refactoring: Extract Method - Removes Duplicate Code smell.
+     *
+     * @param u The stored user
+     * @return The user as callers should see it
+     */
+    private UserDto toDto(User u) {
+        UserDto dto = UserDto.from(u);
+        long pending = greenScores.pending(u.getId());
+        if (pending == 0) {
+            return dto;
+        }
+        return new UserDto(dto.id(), dto.username(), dto.email(), (int) (dto.greenScore() + pending), dto.isVerifier());
+    }
+
+    /**
+     * Records the increment in memory and returns immediately; {@link GreenScoreAccumulator}
+     * writes it shortly after, so concurrent increments for one user never wait on its row.
+     */
     public UserDto incrementGreenScore(Long id, int delta) {
-        User u = repo.findById(id).orElseThrow(() -> new RuntimeException("User not found"));
-        u.setGreenScore(u.getGreenScore() + delta);
-        return UserDto.from(repo.save(u));
+        UserDto dto = greenScores.consistentRead(() -> {
+            User u = repo.findById(id)
+                    .orElseThrow(() -> new RuntimeException("User not found"));
+            greenScores.add(id, delta);
+            return toDto(u);
+        });
+        leaderboard.add(id, delta, dto.greenScore());
+        return dto;
+    }
+
+    /**
+     * The top {@code limit} users, or, given {@code aroundUserId}, the {@code limit} users
+     * ranked nearest to that user.
+     */
+    public List<LeaderboardEntry> leaderboard(int limit, Optional<Long> aroundUserId) {
+        List<Leaderboard.Position> positions = aroundUserId
+                .map(id -> leaderboard.around(id, limit))
+                .orElseGet(() -> leaderboard.top(limit));
+        if (aroundUserId.isPresent() && positions.isEmpty()) {
+            throw new RuntimeException("User not found");
+        }
+        return toLeaderboardEntries(positions);
+    }
+
+    /**
+     * Adds usernames to ranked positions with one primary-key lookup for the whole page.
+     * Refactoring: Extract Method - Reduces Long Method smell.
+     *
+     * @param positions Ranked positions, best first
+     * @return The entries in the same order
+     */
+    private List<LeaderboardEntry> toLeaderboardEntries(List<Leaderboard.Position> positions) {
+        Map<Long, String> usernames = new HashMap<>();
+        for (User u : repo.findAllById(positions.stream().map(Leaderboard.Position::userId).toList())) {
+            usernames.put(u.getId(), u.getUsername());
+        }
+        return positions.stream()
+                .map(p -> new LeaderboardEntry(p.rank(), p.userId(), usernames.get(p.userId()), p.greenScore()))
+                .toList();
+    }
+
+    /**
+     * Applies many score deltas in one DB transaction. Deltas for the same user are summed
+     * first, and rows are updated in id order so concurrent batches cannot deadlock.
+     * <p>
+     * A non-null {@code batchId} is recorded in the same transaction; a batch whose id was
+     * already recorded is acknowledged as a duplicate and not applied again. Two concurrent
+     * deliveries of a new batch race on the primary key and one of them fails and rolls back.
+     */
+    @Transactional
+    public GreenScoreBatchResult incrementGreenScores(List<GreenScoreDelta> deltas, String batchId) {
+        if (batchId != null) {
+            if (processedBatches.existsById(batchId)) {
+                return new GreenScoreBatchResult(0, List.of(), true);
+            }
+            processedBatches.saveAndFlush(new ProcessedGreenScoreBatch(batchId, Instant.now()));
+        }
+
+        Map<Long, Integer> perUser = new TreeMap<>();
+        for (GreenScoreDelta d : deltas) {
+            perUser.merge(d.userId(), d.delta(), Integer::sum);
+        }
+
+        int updated = 0;
+        List<Long> unknown = new ArrayList<>();
+        for (Map.Entry<Long, Integer> e : perUser.entrySet()) {
+            if (repo.addGreenScore(e.getKey(), e.getValue()) == 0) {
+                unknown.add(e.getKey());
+            } else {
+                updated++;
+            }
+        }
+        unknown.forEach(perUser::remove);
+        moveLeaderboardAfterCommit(perUser);
+        return new GreenScoreBatchResult(updated, unknown, false);
+    }
+
+    /**
+     * Applies the batch to the leaderboard only once its transaction commits, so a rolled-back
+     * batch never shows up in the rankings.
+     * Refactoring: Extract Method - Reduces Long Method smell.
+     *
+     * @param applied Summed delta per user that was updated
+     */
+    private void moveLeaderboardAfterCommit(Map<Long, Integer> applied) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                leaderboard.addAll(applied);
+            }
+        });
+    }
+
+    /**
+     * Forgets applied batch ids once replays of them can no longer arrive.
+     */
+    @Scheduled(fixedDelayString = "${users.green-score.batch-purge-interval:1h}")
+    @Transactional
+    public void purgeProcessedBatches() {
+        processedBatches.deleteProcessedBefore(Instant.now().minus(processedBatchRetention));
     }
 }
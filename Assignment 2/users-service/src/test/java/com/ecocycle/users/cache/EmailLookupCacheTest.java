@@ -0,0 +1,92 @@
+package com.ecocycle.users.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for EmailLookupCache
+ */
+@DisplayName("EmailLookupCache Tests")
+class EmailLookupCacheTest {
+
+    private static final String EMAIL = "alice@example.com";
+
+    // Stands in for the unique email index, counting lookups
+    private final Map<String, Long> index = new ConcurrentHashMap<>();
+    private final AtomicInteger lookups = new AtomicInteger();
+    private final Function<String, Optional<Long>> loader = email -> {
+        lookups.incrementAndGet();
+        return Optional.ofNullable(index.get(email));
+    };
+
+    /**
+     * TEST CASE 1: Repeated logins with one email query the index once
+     */
+    @Test
+    @DisplayName("EMAIL-1: A hit is served without calling the loader")
+    void testGet_RepeatedEmail_ShouldLoadOnce() {
+        EmailLookupCache cache = new EmailLookupCache(100, Duration.ofHours(1));
+        index.put(EMAIL, 7L);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(Optional.of(7L), cache.get(EMAIL, loader));
+        }
+
+        assertEquals(1, lookups.get());
+    }
+
+    /**
+     * TEST CASE 2: An unknown email is not remembered, so a later registration elsewhere is found
+     */
+    @Test
+    @DisplayName("EMAIL-2: Misses are not cached")
+    void testGet_UnknownEmail_ShouldNotCacheMiss() {
+        EmailLookupCache cache = new EmailLookupCache(100, Duration.ofHours(1));
+
+        assertEquals(Optional.empty(), cache.get(EMAIL, loader));
+        index.put(EMAIL, 9L);
+
+        assertEquals(Optional.of(9L), cache.get(EMAIL, loader));
+        assertEquals(2, lookups.get());
+    }
+
+    /**
+     * TEST CASE 3: A registration on this instance is resolvable without any lookup
+     */
+    @Test
+    @DisplayName("EMAIL-3: put() makes the email resolvable without the loader")
+    void testPut_NewRegistration_ShouldSkipLoader() {
+        EmailLookupCache cache = new EmailLookupCache(100, Duration.ofHours(1));
+
+        cache.put(EMAIL, 3L);
+
+        assertEquals(Optional.of(3L), cache.get(EMAIL, loader));
+        assertEquals(0, lookups.get());
+    }
+
+    /**
+     * TEST CASE 4: Entries are dropped after the TTL and looked up again
+     */
+    @Test
+    @DisplayName("EMAIL-4: Entries expire after the TTL")
+    void testGet_AfterTtl_ShouldLoadAgain() throws InterruptedException {
+        EmailLookupCache cache = new EmailLookupCache(100, Duration.ofMillis(50));
+        index.put(EMAIL, 7L);
+        cache.get(EMAIL, loader);
+
+        Thread.sleep(100);
+        index.remove(EMAIL);
+
+        assertEquals(Optional.empty(), cache.get(EMAIL, loader));
+        assertEquals(2, lookups.get());
+    }
+}
@@ -0,0 +1,94 @@
+package com.ecocycle.users.controller;
+
+import com.ecocycle.users.dto.GreenScoreBatchResult;
+import com.ecocycle.users.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Test class for PUT /users/greenscore
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UserController PUT /users/greenscore Tests")
+class UserControllerTest {
+
+    @Mock
+    private UserService userService;
+
+    private MockMvc mvc;
+
+    @BeforeEach
+    void setUp() {
+        mvc = MockMvcBuilders.standaloneSetup(new UserController(userService, new ObjectMapper())).build();
+    }
+
+    private static String deltas(int count) {
+        return IntStream.rangeClosed(1, count)
+                .mapToObj(id -> "{\"userId\":" + id + ",\"delta\":1}")
+                .collect(Collectors.joining(",", "[", "]"));
+    }
+
+    /**
+     * TEST CASE 1: A batch at the size limit is passed on with its idempotency key
+     */
+    @Test
+    @DisplayName("BATCH-1: 1000 deltas are accepted")
+    void testUpdateScores_AtLimit_ShouldApply() throws Exception {
+        when(userService.incrementGreenScores(anyList(), any()))
+                .thenReturn(new GreenScoreBatchResult(1000, List.of(), false));
+
+        mvc.perform(put("/users/greenscore").header("Idempotency-Key", "b-1")
+                        .contentType(MediaType.APPLICATION_JSON).content(deltas(1000)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated").value(1000));
+
+        verify(userService).incrementGreenScores(argThat(list -> list.size() == 1000), eq("b-1"));
+    }
+
+    /**
+     * TEST CASE 2: An oversized batch is rejected before it reaches the service
+     */
+    @Test
+    @DisplayName("BATCH-2: 1001 deltas are rejected with 400")
+    void testUpdateScores_OverLimit_ShouldReject() throws Exception {
+        mvc.perform(put("/users/greenscore").header("Idempotency-Key", "b-1")
+                        .contentType(MediaType.APPLICATION_JSON).content(deltas(1001)))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(userService);
+    }
+
+    /**
+     * TEST CASE 3: Empty batches and deltas without a user are rejected
+     */
+    @Test
+    @DisplayName("BATCH-3: Empty batch and null userId are rejected with 400")
+    void testUpdateScores_InvalidBody_ShouldReject() throws Exception {
+        mvc.perform(put("/users/greenscore").contentType(MediaType.APPLICATION_JSON).content("[]"))
+                .andExpect(status().isBadRequest());
+        mvc.perform(put("/users/greenscore").contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"userId\":null,\"delta\":1}]"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(userService);
+    }
+}
@@ -0,0 +1,194 @@
+package com.ecocycle.users.leaderboard;
+
+import com.ecocycle.users.leaderboard.Leaderboard.Position;
+import com.ecocycle.users.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for Leaderboard
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Leaderboard Tests")
+class LeaderboardTest {
+
+    @Mock
+    private UserRepository repository;
+
+    @Mock
+    private PlatformTransactionManager txManager;
+
+    private Leaderboard leaderboard;
+
+    @BeforeEach
+    void setUp() {
+        leaderboard = new Leaderboard(repository, txManager);
+    }
+
+    /**
+     * Ranks users 1..count with user i scoring (count - i) * 10, so user 1 leads.
+     * Refactoring: Extract Method - Removes Duplicate Code smell.
+     *
+     * @param count Number of users
+     */
+    private void rankUsers(int count) {
+        for (long id = 1; id <= count; id++) {
+            leaderboard.put(id, (int) (count - id) * 10);
+        }
+    }
+
+    private static List<Long> userIds(List<Position> positions) {
+        return positions.stream().map(Position::userId).toList();
+    }
+
+    /**
+     * TEST CASE 1: Users with the same score are ranked by lower user ID
+     */
+    @Test
+    @DisplayName("LB-1: Ties are broken by user ID")
+    void testTop_EqualScores_ShouldOrderByUserId() {
+        leaderboard.put(9L, 50);
+        leaderboard.put(3L, 50);
+        leaderboard.put(5L, 70);
+
+        List<Position> top = leaderboard.top(3);
+
+        assertEquals(List.of(5L, 3L, 9L), userIds(top));
+        assertEquals(List.of(1, 2, 3), top.stream().map(Position::rank).toList());
+        assertEquals(OptionalInt.of(2), leaderboard.rank(3L));
+        assertEquals(OptionalInt.of(3), leaderboard.rank(9L));
+    }
+
+    /**
+     * TEST CASE 2: A user near the top is shown with the first positions, not centered
+     */
+    @Test
+    @DisplayName("LB-2: around() at the top of the board starts at rank 1")
+    void testAround_TopEdge_ShouldStartAtFirstRank() {
+        rankUsers(10);
+
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), userIds(leaderboard.around(1L, 5)));
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), userIds(leaderboard.around(2L, 5)));
+        assertEquals(List.of(2L, 3L, 4L, 5L, 6L), userIds(leaderboard.around(4L, 5)));
+    }
+
+    /**
+     * TEST CASE 3: A user near the bottom is shown with the last positions, not centered
+     */
+    @Test
+    @DisplayName("LB-3: around() at the bottom of the board ends at the last rank")
+    void testAround_BottomEdge_ShouldEndAtLastRank() {
+        rankUsers(10);
+
+        List<Position> around = leaderboard.around(10L, 5);
+
+        assertEquals(List.of(6L, 7L, 8L, 9L, 10L), userIds(around));
+        assertEquals(10, around.get(around.size() - 1).rank());
+        assertEquals(List.of(6L, 7L, 8L, 9L, 10L), userIds(leaderboard.around(9L, 5)));
+    }
+
+    /**
+     * TEST CASE 4: A window larger than the board returns the whole board
+     */
+    @Test
+    @DisplayName("LB-4: around() on a short board returns every position; unranked users get none")
+    void testAround_ShortBoardOrUnranked_ShouldClamp() {
+        rankUsers(3);
+
+        assertEquals(List.of(1L, 2L, 3L), userIds(leaderboard.around(2L, 11)));
+        assertTrue(leaderboard.around(99L, 5).isEmpty());
+        assertEquals(OptionalInt.empty(), leaderboard.rank(99L));
+    }
+
+    /**
+     * TEST CASE 5: Losing points moves a user below everyone who now outscores them
+     */
+    @Test
+    @DisplayName("LB-5: A score decrease moves the user down")
+    void testAdd_NegativeDelta_ShouldMoveUserDown() {
+        rankUsers(5);
+        assertEquals(OptionalInt.of(1), leaderboard.rank(1L));
+
+        // 40 - 25 = 15 sits between user 3 (20) and user 4 (10)
+        leaderboard.add(1L, -25, 0);
+
+        assertEquals(OptionalInt.of(3), leaderboard.rank(1L));
+        assertEquals(List.of(2L, 3L, 1L, 4L, 5L), userIds(leaderboard.top(5)));
+        assertEquals(15, leaderboard.top(5).get(2).greenScore());
+        assertEquals(5, leaderboard.size());
+    }
+
+    /**
+     * TEST CASE 6: Batched deltas move ranked users and skip unranked ones
+     */
+    @Test
+    @DisplayName("LB-6: addAll() moves ranked users only")
+    void testAddAll_MixedUsers_ShouldSkipUnranked() {
+        rankUsers(3);
+
+        leaderboard.addAll(Map.of(3L, 15, 42L, 100));
+
+        assertEquals(List.of(1L, 3L, 2L), userIds(leaderboard.top(5)));
+        assertEquals(OptionalInt.empty(), leaderboard.rank(42L));
+        assertEquals(3, leaderboard.size());
+    }
+
+    /**
+     * TEST CASE 7: Every user's rank is the position top() lists them at
+     */
+    @Test
+    @DisplayName("LB-7: rank() agrees with top() after mixed updates")
+    void testRank_AfterUpdates_ShouldAgreeWithTop() {
+        rankUsers(50);
+        for (long id = 1; id <= 50; id += 3) {
+            leaderboard.add(id, id % 2 == 0 ? 37 : -41, 0);
+        }
+        leaderboard.put(7L, 200);
+        leaderboard.add(51L, 5, 120);
+
+        List<Position> top = leaderboard.top(leaderboard.size());
+
+        assertEquals(51, top.size());
+        for (Position p : top) {
+            assertEquals(OptionalInt.of(p.rank()), leaderboard.rank(p.userId()), "user " + p.userId());
+        }
+        for (int i = 1; i < top.size(); i++) {
+            Position prev = top.get(i - 1);
+            Position cur = top.get(i);
+            assertTrue(prev.greenScore() > cur.greenScore()
+                    || (prev.greenScore() == cur.greenScore() && prev.userId() < cur.userId()));
+        }
+    }
+
+    /**
+     * TEST CASE 8: Rebuilding replaces the board with the table, treating a null score as 0
+     */
+    @Test
+    @DisplayName("LB-8: rebuild() loads every user from the repository")
+    void testRebuild_FromRepository_ShouldReplaceBoard() {
+        leaderboard.put(99L, 1000);
+        when(repository.streamGreenScores()).thenReturn(Stream.of(
+                new Object[]{1L, 10},
+                new Object[]{2L, null},
+                new Object[]{3L, 30}));
+
+        leaderboard.rebuild();
+
+        assertEquals(List.of(3L, 1L, 2L), userIds(leaderboard.top(10)));
+        assertEquals(0, leaderboard.top(10).get(2).greenScore());
+        assertEquals(OptionalInt.empty(), leaderboard.rank(99L));
+    }
+}
@@ -0,0 +1,93 @@
+package com.ecocycle.users.leaderboard;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for RankTree
+ */
+@DisplayName("RankTree Tests")
+class RankTreeTest {
+
+    private record Key(long userId, int score) {}
+
+    private static final Comparator<Key> BOARD_ORDER =
+            Comparator.comparingInt(Key::score).reversed().thenComparingLong(Key::userId);
+
+    /**
+     * TEST CASE 1: Equal scores are ordered by ascending user ID
+     */
+    @Test
+    @DisplayName("RT-1: Ties are broken by lower user ID")
+    void testInsert_EqualScores_ShouldOrderByUserId() {
+        RankTree tree = new RankTree();
+        tree.insert(30L, 5);
+        tree.insert(10L, 5);
+        tree.insert(20L, 5);
+        tree.insert(40L, 9);
+
+        assertEquals(40L, tree.userIdAt(0));
+        assertEquals(10L, tree.userIdAt(1));
+        assertEquals(20L, tree.userIdAt(2));
+        assertEquals(30L, tree.userIdAt(3));
+        assertEquals(2, tree.rank(20L, 5));
+    }
+
+    /**
+     * TEST CASE 2: Random inserts, removes and score changes match a sorted list
+     */
+    @Test
+    @DisplayName("RT-2: Ranks and keys at ranks match a brute-force sorted list")
+    void testOperations_RandomWorkload_ShouldMatchSortedList() {
+        Random random = new Random(42);
+        RankTree tree = new RankTree();
+        Map<Long, Integer> scores = new HashMap<>();
+
+        for (int step = 0; step < 5_000; step++) {
+            long userId = random.nextInt(500);
+            Integer old = scores.remove(userId);
+            if (old != null) {
+                tree.remove(userId, old);
+            }
+            if (old == null || random.nextInt(4) != 0) {
+                // a narrow score range so ties are common
+                int score = random.nextInt(50);
+                tree.insert(userId, score);
+                scores.put(userId, score);
+            }
+        }
+
+        List<Key> expected = new ArrayList<>();
+        scores.forEach((userId, score) -> expected.add(new Key(userId, score)));
+        expected.sort(BOARD_ORDER);
+
+        assertEquals(expected.size(), tree.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Key key = expected.get(i);
+            assertEquals(key.userId(), tree.userIdAt(i), "user at rank " + i);
+            assertEquals(key.score(), tree.scoreAt(i), "score at rank " + i);
+            assertEquals(i, tree.rank(key.userId(), key.score()), "rank of user " + key.userId());
+        }
+    }
+
+    /**
+     * TEST CASE 3: Reading past the last rank fails instead of returning a stale key
+     */
+    @Test
+    @DisplayName("RT-3: Rank beyond the size is out of range")
+    void testUserIdAt_RankBeyondSize_ShouldThrow() {
+        RankTree tree = new RankTree();
+        tree.insert(1L, 1);
+
+        assertThrows(IndexOutOfBoundsException.class, () -> tree.userIdAt(1));
+    }
+}
@@ -0,0 +1,199 @@
+package com.ecocycle.users.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for GreenScoreAccumulator
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("GreenScoreAccumulator Tests")
+class GreenScoreAccumulatorTest {
+
+    private static final int USERS = 20;
+
+    @Mock
+    private JdbcTemplate jdbc;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private GreenScoreAccumulator accumulator;
+
+    // Scores as the database would hold them after each successful batch
+    private final Map<Long, Long> stored = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        accumulator = new GreenScoreAccumulator(jdbc, transactionTemplate);
+
+        // Run transaction callbacks inline, as a real TransactionTemplate would
+        lenient().doAnswer(invocation -> {
+            invocation.<Consumer<Object>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    /**
+     * Makes every batch update apply its rows to {@link #stored}, failing whenever
+     * {@code fail} says so without applying anything, like a rolled-back transaction.
+     * Refactoring: Extract Method - Removes Duplicate Code smell.
+     *
+     * @param fail Decides per batch whether it fails
+     */
+    private void batchUpdatesApplyToStore(BooleanSupplier fail) {
+        lenient().when(jdbc.batchUpdate(anyString(), anyList())).thenAnswer(invocation -> {
+            if (fail.getAsBoolean()) {
+                throw new DataAccessResourceFailureException("connection reset");
+            }
+            List<Object[]> rows = invocation.getArgument(1);
+            for (Object[] row : rows) {
+                stored.merge((Long) row[1], (Long) row[0], Long::sum);
+            }
+            return new int[rows.size()];
+        });
+    }
+
+    /**
+     * TEST CASE 1: Pending sums are written once and then dropped
+     */
+    @Test
+    @DisplayName("GSA-1: Flush writes each user's summed increments in id order")
+    void testFlush_PendingIncrements_ShouldWriteSumsInIdOrder() {
+        batchUpdatesApplyToStore(() -> false);
+        accumulator.add(9L, 4);
+        accumulator.add(2L, 3);
+        accumulator.add(9L, 6);
+        accumulator.add(5L, 2);
+        accumulator.add(5L, -2);
+
+        assertEquals(2, accumulator.flush());
+
+        List<Object[]> expected = List.of(new Object[]{3L, 2L}, new Object[]{10L, 9L});
+        verify(jdbc).batchUpdate(anyString(), argThat((List<Object[]> rows) -> rows.size() == expected.size()
+                && Arrays.deepEquals(rows.toArray(), expected.toArray())));
+        assertEquals(0, accumulator.pending(9L));
+        assertEquals(0, accumulator.flush());
+        verify(jdbc, times(1)).batchUpdate(anyString(), anyList());
+    }
+
+    /**
+     * TEST CASE 2: A failed batch leaves the same sums queued for the next flush
+     */
+    @Test
+    @DisplayName("GSA-2: Failed flush re-queues its deltas and the next flush writes them")
+    void testFlush_BatchFails_ShouldKeepDeltasPending() {
+        AtomicBoolean down = new AtomicBoolean(true);
+        batchUpdatesApplyToStore(down::get);
+        accumulator.add(1L, 7);
+        accumulator.add(2L, 3);
+
+        assertThrows(DataAccessResourceFailureException.class, accumulator::flush);
+
+        assertEquals(7, accumulator.pending(1L));
+        assertEquals(3, accumulator.pending(2L));
+        assertTrue(stored.isEmpty());
+
+        accumulator.add(1L, 1);
+        down.set(false);
+        assertEquals(2, accumulator.flush());
+
+        assertEquals(Map.of(1L, 8L, 2L, 3L), stored);
+        assertEquals(0, accumulator.pending(1L));
+        assertEquals(0, accumulator.pending(2L));
+    }
+
+    /**
+     * TEST CASE 3: Increments racing with flushes, some of them failing, are neither lost nor doubled
+     */
+    @Test
+    @DisplayName("GSA-3: Concurrent adds and flushes keep stored + pending equal to the total submitted")
+    void testAddAndFlush_Concurrent_ShouldConserveEveryIncrement() throws Exception {
+        AtomicInteger batches = new AtomicInteger();
+        batchUpdatesApplyToStore(() -> batches.incrementAndGet() % 4 == 0);
+        int writers = 4;
+        int addsPerWriter = 20_000;
+        AtomicLong[] submitted = new AtomicLong[USERS];
+        for (int i = 0; i < USERS; i++) {
+            submitted[i] = new AtomicLong();
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(writers + 1);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            AtomicBoolean writing = new AtomicBoolean(true);
+            List<Future<?>> adders = new ArrayList<>();
+            for (int w = 0; w < writers; w++) {
+                adders.add(pool.submit(() -> {
+                    start.await();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < addsPerWriter; i++) {
+                        int user = random.nextInt(USERS);
+                        int delta = random.nextInt(-3, 10);
+                        accumulator.add((long) user, delta);
+                        submitted[user].addAndGet(delta);
+                    }
+                    return null;
+                }));
+            }
+            Future<Integer> flusher = pool.submit(() -> {
+                start.await();
+                int flushes = 0;
+                while (writing.get()) {
+                    try {
+                        accumulator.flush();
+                    } catch (DataAccessResourceFailureException e) {
+                        // retried by the next flush
+                    }
+                    flushes++;
+                }
+                return flushes;
+            });
+
+            start.countDown();
+            for (Future<?> adder : adders) {
+                adder.get(30, TimeUnit.SECONDS);
+            }
+            writing.set(false);
+            assertTrue(flusher.get(30, TimeUnit.SECONDS) > 0);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertTrue(batches.get() > 1, "flushes should have overlapped the writers");
+        for (long user = 0; user < USERS; user++) {
+            long total = stored.getOrDefault(user, 0L) + accumulator.pending(user);
+            assertEquals(submitted[(int) user].get(), total, "user " + user);
+        }
+    }
+}
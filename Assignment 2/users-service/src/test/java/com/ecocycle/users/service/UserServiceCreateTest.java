@@ -0,0 +1,110 @@
+package com.ecocycle.users.service;
+
+import com.ecocycle.users.cache.EmailLookupCache;
+import com.ecocycle.users.dto.CreateUserRequest;
+import com.ecocycle.users.dto.UserDto;
+import com.ecocycle.users.leaderboard.Leaderboard;
+import com.ecocycle.users.model.User;
+import com.ecocycle.users.repository.ProcessedGreenScoreBatchRepository;
+import com.ecocycle.users.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for UserService.create()
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UserService.create() Tests")
+class UserServiceCreateTest {
+
+    private static final String EMAIL = "alice@example.com";
+
+    @Mock
+    private UserRepository repository;
+
+    @Mock
+    private Leaderboard leaderboard;
+
+    private EmailLookupCache emailLookup;
+    private UserService userService;
+
+    @BeforeEach
+    void setUp() {
+        emailLookup = new EmailLookupCache(100, Duration.ofHours(1));
+        userService = new UserService(repository, mock(ProcessedGreenScoreBatchRepository.class), emailLookup,
+                mock(GreenScoreAccumulator.class), leaderboard, mock(EntityManager.class), Duration.ofDays(7));
+    }
+
+    private void savesWithId(long id) {
+        when(repository.save(any(User.class))).thenAnswer(invocation -> {
+            User u = invocation.getArgument(0);
+            u.setId(id);
+            return u;
+        });
+    }
+
+    /**
+     * TEST CASE 1: A successful registration is cached and ranked
+     */
+    @Test
+    @DisplayName("REG-1: New user is added to the email cache and leaderboard")
+    void testCreate_NewEmail_ShouldCacheAndRank() {
+        savesWithId(1L);
+
+        UserDto created = userService.create(new CreateUserRequest("alice", EMAIL));
+
+        assertEquals(1L, created.id());
+        assertEquals(1L, userService.findIdByEmail(EMAIL));
+        verify(repository, never()).findIdByEmail(anyString());
+        verify(leaderboard).put(1L, 0);
+    }
+
+    /**
+     * TEST CASE 2: A duplicate email is a client conflict, not a server error
+     */
+    @Test
+    @DisplayName("REG-2: Unique index violation surfaces as 409 Conflict")
+    void testCreate_DuplicateEmail_ShouldReturnConflict() {
+        when(repository.save(any(User.class))).thenThrow(new DataIntegrityViolationException("uk_users_email"));
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> userService.create(new CreateUserRequest("alice", EMAIL)));
+
+        assertEquals(HttpStatus.CONFLICT, e.getStatusCode());
+        verify(leaderboard, never()).put(anyLong(), anyInt());
+    }
+
+    /**
+     * TEST CASE 3: A rejected registration leaves the cached owner of the email in place
+     */
+    @Test
+    @DisplayName("REG-3: Conflicting registration does not change the email cache")
+    void testCreate_DuplicateEmail_ShouldKeepCachedOwner() {
+        savesWithId(1L);
+        userService.create(new CreateUserRequest("alice", EMAIL));
+        reset(repository);
+        when(repository.save(any(User.class))).thenThrow(new DataIntegrityViolationException("uk_users_email"));
+
+        assertThrows(ResponseStatusException.class,
+                () -> userService.create(new CreateUserRequest("mallory", EMAIL)));
+
+        assertEquals(1L, userService.findIdByEmail(EMAIL));
+        verify(repository, never()).findIdByEmail(anyString());
+    }
+}
@@ -0,0 +1,165 @@
+package com.ecocycle.users.service;
+
+import com.ecocycle.users.cache.EmailLookupCache;
+import com.ecocycle.users.dto.GreenScoreBatchResult;
+import com.ecocycle.users.dto.GreenScoreDelta;
+import com.ecocycle.users.leaderboard.Leaderboard;
+import com.ecocycle.users.model.ProcessedGreenScoreBatch;
+import com.ecocycle.users.repository.ProcessedGreenScoreBatchRepository;
+import com.ecocycle.users.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for UserService.incrementGreenScores()
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UserService.incrementGreenScores() Tests")
+class UserServiceGreenScoreBatchTest {
+
+    private static final String BATCH_ID = "batch-1";
+
+    @Mock
+    private UserRepository repository;
+
+    @Mock
+    private ProcessedGreenScoreBatchRepository processedBatches;
+
+    @Mock
+    private Leaderboard leaderboard;
+
+    private UserService userService;
+
+    // Batch ids recorded so far, standing in for the processed_green_score_batches table
+    private final Set<String> recorded = new HashSet<>();
+
+    @BeforeEach
+    void setUp() {
+        userService = new UserService(repository, processedBatches, mock(EmailLookupCache.class),
+                mock(GreenScoreAccumulator.class), leaderboard, mock(EntityManager.class), Duration.ofDays(7));
+
+        lenient().when(processedBatches.existsById(anyString())).thenAnswer(i -> recorded.contains(i.<String>getArgument(0)));
+        lenient().when(processedBatches.saveAndFlush(any(ProcessedGreenScoreBatch.class))).thenAnswer(i -> {
+            ProcessedGreenScoreBatch batch = i.getArgument(0);
+            recorded.add(batch.getBatchId());
+            return batch;
+        });
+
+        // @Transactional is not applied outside Spring; stand in for the surrounding transaction
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    /**
+     * Completes the stand-in transaction as a commit, running the after-commit callbacks.
+     * Refactoring: Extract Method - Removes Duplicate Code smell.
+     */
+    private void commit() {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    /**
+     * TEST CASE 1: A redelivered batch is acknowledged but its deltas are not applied again
+     */
+    @Test
+    @DisplayName("GSB-1: Replayed batch id is applied exactly once")
+    void testIncrementGreenScores_ReplayedBatch_ShouldApplyOnce() {
+        when(repository.addGreenScore(anyLong(), anyInt())).thenReturn(1);
+        List<GreenScoreDelta> deltas = List.of(new GreenScoreDelta(1L, 5), new GreenScoreDelta(2L, 3));
+
+        GreenScoreBatchResult first = userService.incrementGreenScores(deltas, BATCH_ID);
+        commit();
+        GreenScoreBatchResult replay = userService.incrementGreenScores(deltas, BATCH_ID);
+        commit();
+
+        assertEquals(new GreenScoreBatchResult(2, List.of(), false), first);
+        assertEquals(new GreenScoreBatchResult(0, List.of(), true), replay);
+        verify(repository).addGreenScore(1L, 5);
+        verify(repository).addGreenScore(2L, 3);
+        verify(processedBatches, times(1)).saveAndFlush(any(ProcessedGreenScoreBatch.class));
+        verify(leaderboard, times(1)).addAll(any());
+    }
+
+    /**
+     * TEST CASE 2: Known users are updated and unknown ones reported, all in the one transaction
+     */
+    @Test
+    @DisplayName("GSB-2: Unknown users are reported and left off the leaderboard; known users still apply")
+    void testIncrementGreenScores_UnknownUsers_ShouldApplyPartially() {
+        when(repository.addGreenScore(anyLong(), anyInt())).thenAnswer(i -> i.<Long>getArgument(0) == 404L ? 0 : 1);
+
+        GreenScoreBatchResult result = userService.incrementGreenScores(List.of(
+                new GreenScoreDelta(2L, 4),
+                new GreenScoreDelta(404L, 9),
+                new GreenScoreDelta(1L, 1),
+                new GreenScoreDelta(2L, 6)), BATCH_ID);
+
+        assertEquals(new GreenScoreBatchResult(2, List.of(404L), false), result);
+        // deltas for the same user are summed into one update
+        verify(repository).addGreenScore(2L, 10);
+        verify(repository).addGreenScore(1L, 1);
+        assertTrue(recorded.contains(BATCH_ID));
+
+        verify(leaderboard, never()).addAll(any());
+        commit();
+        verify(leaderboard).addAll(Map.of(1L, 1, 2L, 10));
+    }
+
+    /**
+     * TEST CASE 3: A rolled-back batch never reaches the leaderboard
+     */
+    @Test
+    @DisplayName("GSB-3: Leaderboard is only moved once the transaction commits")
+    void testIncrementGreenScores_RolledBack_ShouldNotMoveLeaderboard() {
+        when(repository.addGreenScore(anyLong(), anyInt())).thenReturn(1);
+
+        userService.incrementGreenScores(List.of(new GreenScoreDelta(1L, 5)), BATCH_ID);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        verify(leaderboard, never()).addAll(any());
+    }
+
+    /**
+     * TEST CASE 4: Without an idempotency key the batch is applied and nothing is recorded
+     */
+    @Test
+    @DisplayName("GSB-4: Batch without an id is applied without recording it")
+    void testIncrementGreenScores_NoBatchId_ShouldNotRecord() {
+        when(repository.addGreenScore(anyLong(), anyInt())).thenReturn(1);
+
+        GreenScoreBatchResult result = userService.incrementGreenScores(List.of(new GreenScoreDelta(1L, 5)), null);
+
+        assertEquals(new GreenScoreBatchResult(1, List.of(), false), result);
+        verify(processedBatches, never()).existsById(anyString());
+        verify(processedBatches, never()).saveAndFlush(any());
+    }
+}
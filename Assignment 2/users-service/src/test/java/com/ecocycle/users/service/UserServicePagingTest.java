@@ -0,0 +1,211 @@
+package com.ecocycle.users.service;
+
+import com.ecocycle.users.cache.EmailLookupCache;
+import com.ecocycle.users.dto.UserBatchDto;
+import com.ecocycle.users.dto.UserDto;
+import com.ecocycle.users.dto.UserPage;
+import com.ecocycle.users.leaderboard.Leaderboard;
+import com.ecocycle.users.model.User;
+import com.ecocycle.users.repository.ProcessedGreenScoreBatchRepository;
+import com.ecocycle.users.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for UserService.list(), getAll() and export()
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UserService Paging, Multi-get and Export Tests")
+class UserServicePagingTest {
+
+    // Matches UserService.EXPORT_PAGE_SIZE
+    private static final int EXPORT_PAGE_SIZE = 500;
+
+    @Mock
+    private UserRepository repository;
+
+    @Mock
+    private EntityManager em;
+
+    private GreenScoreAccumulator accumulator;
+    private UserService userService;
+
+    // Stands in for the users table, keyed by id
+    private final TreeMap<Long, User> table = new TreeMap<>();
+
+    @BeforeEach
+    void setUp() {
+        accumulator = new GreenScoreAccumulator(mock(JdbcTemplate.class), mock(TransactionTemplate.class));
+        userService = new UserService(repository, mock(ProcessedGreenScoreBatchRepository.class),
+                mock(EmailLookupCache.class), accumulator, mock(Leaderboard.class), em, Duration.ofDays(7));
+
+        lenient().when(repository.findByIdGreaterThanOrderByIdAsc(anyLong(), any(Limit.class))).thenAnswer(i ->
+                table.tailMap(i.<Long>getArgument(0), false).values().stream()
+                        .limit(i.<Limit>getArgument(1).max()).toList());
+        lenient().when(repository.findAllById(any())).thenAnswer(i -> {
+            List<User> found = new ArrayList<>();
+            for (Long id : i.<Iterable<Long>>getArgument(0)) {
+                Optional.ofNullable(table.get(id)).ifPresent(found::add);
+            }
+            return found;
+        });
+    }
+
+    /**
+     * Stores users with ids step, 2*step, ... so ids are not contiguous.
+     * Refactoring: Extract Method - Removes Duplicate Code smell.
+     *
+     * @param count Number of users
+     * @param step Gap between consecutive ids
+     */
+    private void storeUsers(int count, long step) {
+        for (long id = step; id <= count * step; id += step) {
+            User u = new User();
+            u.setId(id);
+            u.setUsername("user" + id);
+            u.setEmail("user" + id + "@example.com");
+            u.setGreenScore((int) id);
+            table.put(id, u);
+        }
+    }
+
+    private static List<Long> ids(List<UserDto> users) {
+        return users.stream().map(UserDto::id).toList();
+    }
+
+    /**
+     * TEST CASE 1: Following nextCursor visits every user once, in id order
+     */
+    @Test
+    @DisplayName("PAGE-1: Cursor continuation walks all pages and stops with a null cursor")
+    void testList_FollowCursor_ShouldVisitEveryUserOnce() {
+        storeUsers(7, 10);
+
+        UserPage first = userService.list(Optional.empty(), 3);
+        UserPage second = userService.list(Optional.of(first.nextCursor()), 3);
+        UserPage last = userService.list(Optional.of(second.nextCursor()), 3);
+
+        assertEquals(List.of(10L, 20L, 30L), ids(first.items()));
+        assertEquals(30L, first.nextCursor());
+        assertEquals(List.of(40L, 50L, 60L), ids(second.items()));
+        assertEquals(60L, second.nextCursor());
+        assertEquals(List.of(70L), ids(last.items()));
+        assertNull(last.nextCursor());
+        // one extra row per page tells whether another page follows
+        verify(repository).findByIdGreaterThanOrderByIdAsc(0L, Limit.of(4));
+    }
+
+    /**
+     * TEST CASE 2: A final page that is exactly full does not promise another page
+     */
+    @Test
+    @DisplayName("PAGE-2: Exactly limit rows left gives a null cursor")
+    void testList_ExactlyFullLastPage_ShouldEndWithNullCursor() {
+        storeUsers(6, 1);
+
+        UserPage page = userService.list(Optional.of(3L), 3);
+
+        assertEquals(List.of(4L, 5L, 6L), ids(page.items()));
+        assertNull(page.nextCursor());
+    }
+
+    /**
+     * TEST CASE 3: A last export page of exactly the page size costs one more, empty, query
+     */
+    @Test
+    @DisplayName("EXP-1: Export of exactly one full page issues one more empty query and stops")
+    void testExport_ExactlyOnePage_ShouldStopAfterEmptyPage() {
+        storeUsers(EXPORT_PAGE_SIZE, 1);
+        List<UserDto> exported = new ArrayList<>();
+
+        userService.export(exported::add);
+
+        assertEquals(EXPORT_PAGE_SIZE, exported.size());
+        InOrder order = inOrder(repository);
+        order.verify(repository).findByIdGreaterThanOrderByIdAsc(0L, Limit.of(EXPORT_PAGE_SIZE));
+        order.verify(repository).findByIdGreaterThanOrderByIdAsc((long) EXPORT_PAGE_SIZE, Limit.of(EXPORT_PAGE_SIZE));
+        verify(repository, times(2)).findByIdGreaterThanOrderByIdAsc(anyLong(), any(Limit.class));
+        verify(em, times(2)).clear();
+    }
+
+    /**
+     * TEST CASE 4: A multi-page export resumes after the last id of each page
+     */
+    @Test
+    @DisplayName("EXP-2: Export spanning pages emits every user once in id order")
+    void testExport_SeveralPages_ShouldEmitEveryUserOnce() {
+        storeUsers(2 * EXPORT_PAGE_SIZE + 1, 3);
+        List<UserDto> exported = new ArrayList<>();
+
+        userService.export(exported::add);
+
+        assertEquals(new ArrayList<>(table.keySet()), ids(exported));
+        verify(repository).findByIdGreaterThanOrderByIdAsc(3L * EXPORT_PAGE_SIZE, Limit.of(EXPORT_PAGE_SIZE));
+        verify(repository).findByIdGreaterThanOrderByIdAsc(6L * EXPORT_PAGE_SIZE, Limit.of(EXPORT_PAGE_SIZE));
+        verify(repository, times(3)).findByIdGreaterThanOrderByIdAsc(anyLong(), any(Limit.class));
+    }
+
+    /**
+     * TEST CASE 5: An empty table is exported with a single query
+     */
+    @Test
+    @DisplayName("EXP-3: Export of an empty table issues one query")
+    void testExport_EmptyTable_ShouldQueryOnce() {
+        List<UserDto> exported = new ArrayList<>();
+
+        userService.export(exported::add);
+
+        assertTrue(exported.isEmpty());
+        verify(repository, times(1)).findByIdGreaterThanOrderByIdAsc(anyLong(), any(Limit.class));
+    }
+
+    /**
+     * TEST CASE 6: Unknown ids are reported, duplicates looked up once, and pending increments included
+     */
+    @Test
+    @DisplayName("MGET-1: Unknown ids go to notFound; found users keep request order")
+    void testGetAll_UnknownAndDuplicateIds_ShouldSplitFoundAndNotFound() {
+        storeUsers(3, 1);
+        accumulator.add(3L, 7);
+
+        UserBatchDto result = userService.getAll(List.of(3L, 99L, 1L, 3L, 42L));
+
+        assertEquals(List.of(3L, 1L), new ArrayList<>(result.users().keySet()));
+        assertEquals(List.of(99L, 42L), result.notFound());
+        assertEquals(3 + 7, result.users().get(3L).greenScore());
+        verify(repository, times(1)).findAllById(Set.of(3L, 99L, 1L, 42L));
+    }
+
+    /**
+     * TEST CASE 7: Only unknown ids gives an empty map, not an error
+     */
+    @Test
+    @DisplayName("MGET-2: All ids unknown returns every id in notFound")
+    void testGetAll_AllUnknown_ShouldReturnOnlyNotFound() {
+        UserBatchDto result = userService.getAll(List.of(5L, 6L));
+
+        assertTrue(result.users().isEmpty());
+        assertEquals(List.of(5L, 6L), result.notFound());
+    }
+}
@@ -0,0 +1,109 @@
+package com.ecocycle.users.service;
+
+import com.ecocycle.users.cache.EmailLookupCache;
+import com.ecocycle.users.leaderboard.Leaderboard;
+import com.ecocycle.users.repository.ProcessedGreenScoreBatchRepository;
+import com.ecocycle.users.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for UserService.version()
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UserService.version() Tests")
+class UserServiceVersionTest {
+
+    private static final Long USER_ID = 7L;
+
+    @Mock
+    private UserRepository repository;
+
+    @Mock
+    private JdbcTemplate jdbc;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private GreenScoreAccumulator accumulator;
+    private UserService userService;
+
+    @BeforeEach
+    void setUp() {
+        accumulator = new GreenScoreAccumulator(jdbc, transactionTemplate);
+        userService = new UserService(repository, mock(ProcessedGreenScoreBatchRepository.class),
+                mock(EmailLookupCache.class), accumulator, mock(Leaderboard.class), mock(EntityManager.class),
+                Duration.ofDays(7));
+
+        // Run transaction callbacks inline, as a real TransactionTemplate would
+        lenient().doAnswer(invocation -> {
+            invocation.<Consumer<Object>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    /**
+     * TEST CASE 1: The tag is the stored score version plus this instance's pending sum
+     */
+    @Test
+    @DisplayName("VER-1: Tag combines the persisted score version with pending increments")
+    void testVersion_PendingIncrements_ShouldBePartOfTag() {
+        when(repository.findScoreVersionById(USER_ID)).thenReturn(Optional.of(3L));
+
+        assertEquals(Optional.of("3-0"), userService.version(USER_ID));
+        accumulator.add(USER_ID, 5);
+        assertEquals(Optional.of("3-5"), userService.version(USER_ID));
+    }
+
+    /**
+     * TEST CASE 2: A flush moves the pending sum into the stored score and bumps the version
+     */
+    @Test
+    @DisplayName("VER-2: After a flush the tag carries the new version and no pending sum")
+    void testVersion_AfterFlush_ShouldCarryNewVersion() {
+        when(repository.findScoreVersionById(USER_ID)).thenReturn(Optional.of(3L), Optional.of(4L));
+        accumulator.add(USER_ID, 5);
+
+        assertEquals(Optional.of("3-5"), userService.version(USER_ID));
+        accumulator.flush();
+        assertEquals(Optional.of("4-0"), userService.version(USER_ID));
+    }
+
+    /**
+     * TEST CASE 3: A write made elsewhere changes the tag even though this instance saw nothing
+     */
+    @Test
+    @DisplayName("VER-3: A score change applied by another instance changes the tag")
+    void testVersion_WriteFromOtherInstance_ShouldChangeTag() {
+        when(repository.findScoreVersionById(USER_ID)).thenReturn(Optional.of(3L), Optional.of(4L));
+
+        String before = userService.version(USER_ID).orElseThrow();
+        assertNotEquals(before, userService.version(USER_ID).orElseThrow());
+    }
+
+    /**
+     * TEST CASE 4: Unknown users get no tag and fall through to the not-found handling
+     */
+    @Test
+    @DisplayName("VER-4: Unknown user has no version")
+    void testVersion_UnknownUser_ShouldBeEmpty() {
+        when(repository.findScoreVersionById(99L)).thenReturn(Optional.empty());
+
+        assertTrue(userService.version(99L).isEmpty());
+    }
+}